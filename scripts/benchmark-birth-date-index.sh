@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Compares birth-date range latency with a full table scan against the (birth_date, id) index.
+#
+# Seeds a throw-away schema in the docker-compose MariaDB with 1M and 10M synthetic users, then
+# times the same range query with IGNORE INDEX and with the index. Results go to stdout and to
+# target/benchmarks/birth-date-index.csv.
+#
+# Usage: scripts/benchmark-birth-date-index.sh [row counts...]   (default: 1000000 10000000)
+set -euo pipefail
+
+ROW_COUNTS=("${@:-1000000 10000000}")
+ROW_COUNTS=(${ROW_COUNTS[*]})
+RUNS=${RUNS:-5}
+SCHEMA=${SCHEMA:-users_index_benchmark}
+MARIADB=${MARIADB:-"docker compose exec -T mariadb mariadb -uroot -p${MARIADB_ROOT_PASSWORD:-root}"}
+OUT=target/benchmarks/birth-date-index.csv
+
+mkdir -p "$(dirname "$OUT")"
+echo "rows,query,access,avg_ms" > "$OUT"
+
+sql() {
+    $MARIADB --batch --skip-column-names "$SCHEMA" -e "$1"
+}
+
+time_query() {
+    local query=$1 total=0 start end
+    sql "$query" > /dev/null
+    for _ in $(seq "$RUNS"); do
+        start=$(date +%s%N)
+        sql "$query" > /dev/null
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo $((total / RUNS))
+}
+
+$MARIADB -e "CREATE DATABASE IF NOT EXISTS $SCHEMA"
+
+for rows in "${ROW_COUNTS[@]}"; do
+    echo "Seeding $rows users..."
+    sql "DROP TABLE IF EXISTS users"
+    sql "$(cat src/main/resources/db/migration/V1__create_users_table.sql)"
+    sql "INSERT INTO users (email, first_name, last_name, birth_date, address, phone_number)
+         SELECT CONCAT('user', seq, '@example.com'), 'First', 'Last',
+                DATE_SUB('2006-01-01', INTERVAL (seq * 7919) % 29200 DAY), 'Main street 1', '555-0100'
+         FROM seq_1_to_${rows}"
+    sql "$(cat src/main/resources/db/migration/V2__add_users_birth_date_index.sql)"
+    sql "ANALYZE TABLE users" > /dev/null
+
+    columns="id, email, first_name, last_name, birth_date, address, phone_number"
+    range="birth_date BETWEEN '1990-01-01' AND '1990-01-31'"
+    declare -A queries=(
+        [month_range]="SELECT $columns FROM users %s WHERE $range ORDER BY birth_date, id"
+        [first_page_100]="SELECT $columns FROM users %s WHERE birth_date BETWEEN '1950-01-01' AND '2000-01-01' ORDER BY birth_date, id LIMIT 101"
+    )
+    for name in "${!queries[@]}"; do
+        # shellcheck disable=SC2059
+        scan=$(time_query "$(printf "${queries[$name]}" "IGNORE INDEX (idx_users_birth_date_id)")")
+        # shellcheck disable=SC2059
+        indexed=$(time_query "$(printf "${queries[$name]}" "FORCE INDEX (idx_users_birth_date_id)")")
+        printf '%10s rows  %-15s scan %6d ms  index %6d ms\n' "$rows" "$name" "$scan" "$indexed"
+        echo "$rows,$name,scan,$scan" >> "$OUT"
+        echo "$rows,$name,index,$indexed" >> "$OUT"
+    done
+done
+
+$MARIADB -e "DROP DATABASE $SCHEMA"
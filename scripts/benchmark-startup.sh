@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Compares startup time of the plain jar, the AOT-processed build and the AOT build with a CDS archive.
+#
+# Builds the jar twice (plain and with -Pfast-start), unpacks the AOT build onto a flat classpath of jars (CDS
+# does not archive classes loaded from directories or from jars nested in the Boot jar) and records
+# a class-data sharing archive from a training run that exits right after the context refreshes. Each variant
+# is then started RUNS times against the docker-compose MariaDB. Records the startup time Spring reports, the
+# wall time until /actuator/health answers and the latency of the first range request.
+# Results go to stdout and to target/benchmarks/startup.csv.
+#
+# Usage: scripts/benchmark-startup.sh [runs]   (default: 5)
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+URL=${URL:-"http://localhost:$PORT/users/list/by-birth-date-range?from=1980-01-01&to=1980-12-31&size=100"}
+OUT=target/benchmarks/startup.csv
+EXTRACTED=target/fast-start
+
+export SPRING_DATASOURCE_URL=${SPRING_DATASOURCE_URL:-jdbc:mariadb://localhost:3306}
+export SPRING_DATASOURCE_USERNAME=${SPRING_DATASOURCE_USERNAME:-root}
+export SPRING_DATASOURCE_PASSWORD=${SPRING_DATASOURCE_PASSWORD:-root}
+export DB_NAME=${DB_NAME:-microservices}
+export USER_REGISTRATION_MIN_AGE=${USER_REGISTRATION_MIN_AGE:-18}
+export SPRING_PROFILES_ACTIVE=prod
+
+mkdir -p "$(dirname "$OUT")"
+
+./mvnw -B -q -DskipTests clean package
+BASELINE_JAR=target/baseline.jar
+cp "$(ls target/*.jar | grep -v plain | head -1)" "$BASELINE_JAR"
+
+./mvnw -B -q -Pfast-start -DskipTests package
+rm -rf "$EXTRACTED"
+mkdir -p "$EXTRACTED"
+(cd "$EXTRACTED" && jar -xf "../$(basename "$(ls ../*.jar | grep -v -e plain -e baseline | head -1)")")
+jar --create --file "$EXTRACTED/app.jar" -C "$EXTRACTED/BOOT-INF/classes" .
+CLASSPATH="$EXTRACTED/app.jar:$(ls "$EXTRACTED"/BOOT-INF/lib/*.jar | paste -sd:)"
+MAIN=org.example.javatest.JavaTestApplication
+
+java -XX:ArchiveClassesAtExit="$EXTRACTED/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -cp "$CLASSPATH" "$MAIN" --server.port="$PORT" > target/benchmarks/startup-training.log 2>&1
+
+declare -A COMMANDS=(
+    [baseline]="java -jar $BASELINE_JAR"
+    [aot]="java -Dspring.aot.enabled=true -cp $CLASSPATH $MAIN"
+    [aot_cds]="java -XX:SharedArchiveFile=$EXTRACTED/app.jsa -Dspring.aot.enabled=true -cp $CLASSPATH $MAIN"
+)
+
+echo "variant,run,started_in_s,healthy_ms,first_request_ms" > "$OUT"
+
+for variant in baseline aot aot_cds; do
+    for run in $(seq 1 "$RUNS"); do
+        log="target/benchmarks/startup-$variant-$run.log"
+        begin=$(date +%s%N)
+        ${COMMANDS[$variant]} --server.port="$PORT" > "$log" 2>&1 &
+        app=$!
+        trap 'kill $app 2> /dev/null' EXIT
+        until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 0.05; done
+        healthy=$(( ($(date +%s%N) - begin) / 1000000 ))
+        first=$(curl -s -o /dev/null -w '%{time_total}' "$URL" | awk '{printf "%.1f", $1 * 1000}')
+        started=$(sed -n 's/.*Started .* in \([0-9.]*\) seconds.*/\1/p' "$log")
+        echo "variant=$variant run=$run started_in=${started}s healthy=${healthy}ms first_request=${first}ms"
+        echo "$variant,$run,$started,$healthy,$first" >> "$OUT"
+
+        kill "$app"
+        wait "$app" 2> /dev/null || true
+    done
+done
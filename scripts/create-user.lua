@@ -0,0 +1,18 @@
+-- wrk script that posts a new user with a unique email on every request.
+local counter = 0
+local thread_id = 0
+local run_id = os.time()
+
+function setup(thread)
+    thread:set("thread_id", thread_id)
+    thread_id = thread_id + 1
+end
+
+function request()
+    counter = counter + 1
+    local email = string.format("load-%d-%d-%d@example.com", run_id, thread_id, counter)
+    local body = string.format(
+        '{"email":"%s","firstName":"Load","lastName":"Test","birthDate":"1980-%02d-%02d"}',
+        email, counter % 12 + 1, counter % 28 + 1)
+    return wrk.format("POST", "/users", {["Content-Type"] = "application/json"}, body)
+end
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Compares createUser and range-query throughput with the untuned pool and driver against the tuned defaults.
+#
+# Builds the jar, then starts it once per configuration against the docker-compose MariaDB. The "untuned" run
+# restores the old settings: a fixed pool of 10 and no server-side prepared statements, statement cache or bulk
+# batches. The "tuned" run uses the defaults from application.properties. Each run drives POST /users with unique
+# emails and the birth-date range endpoint with `wrk`.
+# Results go to stdout and to target/benchmarks/connection-pool.csv.
+#
+# Usage: scripts/load-test-connection-pool.sh [concurrency...]   (default: 16 64 256)
+set -euo pipefail
+
+CONCURRENCY=("${@:-16 64 256}")
+CONCURRENCY=(${CONCURRENCY[*]})
+DURATION=${DURATION:-60s}
+THREADS=${THREADS:-4}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:$PORT"
+RANGE_PATH=${RANGE_PATH:-"/users/list/by-birth-date-range?from=1980-01-01&to=1980-12-31&size=100"}
+OUT=target/benchmarks/connection-pool.csv
+
+export SPRING_DATASOURCE_URL=${SPRING_DATASOURCE_URL:-jdbc:mariadb://localhost:3306}
+export SPRING_DATASOURCE_USERNAME=${SPRING_DATASOURCE_USERNAME:-root}
+export SPRING_DATASOURCE_PASSWORD=${SPRING_DATASOURCE_PASSWORD:-root}
+export DB_NAME=${DB_NAME:-microservices}
+export USER_REGISTRATION_MIN_AGE=${USER_REGISTRATION_MIN_AGE:-18}
+export SPRING_JPA_SHOW_SQL=false
+
+command -v wrk > /dev/null || { echo "wrk (https://github.com/wg/wrk) is required" >&2; exit 1; }
+
+./mvnw -B -q -DskipTests package
+JAR=$(ls target/*.jar | grep -v plain | head -1)
+
+mkdir -p "$(dirname "$OUT")"
+echo "config,workload,concurrency,requests_per_sec,p99_ms" > "$OUT"
+
+run_wrk() {
+    local concurrency=$1
+    shift
+    wrk -t "$THREADS" -c "$concurrency" -d "$DURATION" --latency "$@"
+}
+
+for config in untuned tuned; do
+    if [ "$config" = untuned ]; then
+        settings=(DB_POOL_MAX_SIZE=10 DB_USE_SERVER_PREP_STMTS=false DB_CACHE_PREP_STMTS=false DB_USE_BULK_STMTS=false)
+    else
+        settings=()
+    fi
+    env "${settings[@]}" java -jar "$JAR" --server.port="$PORT" > "target/benchmarks/app-pool-$config.log" 2>&1 &
+    app=$!
+    trap 'kill $app 2> /dev/null' EXIT
+    until curl -sf "$BASE_URL/actuator/health" > /dev/null; do sleep 1; done
+
+    for concurrency in "${CONCURRENCY[@]}"; do
+        for workload in create range; do
+            if [ "$workload" = create ]; then
+                args=(-s scripts/create-user.lua "$BASE_URL")
+            else
+                args=("$BASE_URL$RANGE_PATH")
+            fi
+            run_wrk "$concurrency" "${args[@]}" > /dev/null
+            report=$(run_wrk "$concurrency" "${args[@]}")
+            rps=$(awk '/Requests\/sec/ {print $2}' <<< "$report")
+            p99=$(awk '$1 == "99%" {v = $2; if (v ~ /us$/) {sub(/us/, "", v); v /= 1000} else if (v ~ /ms$/) {sub(/ms/, "", v)} else if (v ~ /s$/) {sub(/s/, "", v); v *= 1000}; printf "%.1f", v}' <<< "$report")
+            echo "config=$config workload=$workload concurrency=$concurrency rps=$rps p99=${p99}ms"
+            echo "$config,$workload,$concurrency,$rps,$p99" >> "$OUT"
+        done
+    done
+
+    curl -s "$BASE_URL/actuator/metrics/hikaricp.connections.acquire" > "target/benchmarks/pool-acquire-$config.json"
+    kill "$app"
+    wait "$app" 2> /dev/null || true
+done
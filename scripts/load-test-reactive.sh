@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Compares the servlet (MVC + JPA) and reactive (WebFlux + R2DBC) builds under the same load.
+#
+# Runs the end-to-end load test once per stack and arrival rate against the embedded database, with the
+# same seed and workload mix. Higher rates keep more requests in flight than Tomcat has worker threads.
+# Results go to stdout and to target/benchmarks/reactive.csv; the full reports stay in target/loadtest.
+#
+# Usage: scripts/load-test-reactive.sh [rate...]   (default: 200 1000 3000)
+set -euo pipefail
+
+RATES=("${@:-200 1000 3000}")
+RATES=(${RATES[*]})
+USERS=${USERS:-100000}
+DURATION=${DURATION:-60s}
+MIX=${MIX:-create=10,update=20,delete=5,range=65}
+OUT=target/benchmarks/reactive.csv
+
+command -v jq > /dev/null || { echo "jq (https://jqlang.github.io/jq/) is required" >&2; exit 1; }
+
+mkdir -p "$(dirname "$OUT")"
+echo "stack,rate,operation,requests_per_sec,errors,p50_ms,p99_ms,p999_ms" > "$OUT"
+
+for rate in "${RATES[@]}"; do
+    for stack in mvc reactive; do
+        result="target/loadtest/$stack-$rate.json"
+        ./mvnw -B -q -Ploadtest,reactive verify -Dloadtest.args="--stack=$stack --label=$stack-$rate \
+--users=$USERS --rate=$rate --duration=$DURATION --mix=$MIX --out=$result"
+        jq -r --arg stack "$stack" --arg rate "$rate" '.operations | to_entries[]
+            | [$stack, $rate, .key, .value.throughput, .value.errors, .value.p50Ms, .value.p99Ms, .value.p999Ms]
+            | @csv' "$result" | tr -d '"' | tee -a "$OUT"
+    done
+done
@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Compares throughput and p99 latency of platform-thread and virtual-thread request handling.
+#
+# Builds the jar, then starts it once per mode against the docker-compose MariaDB and drives the
+# birth-date range endpoint with `hey` at a fixed concurrency. Virtual threads need a Java 21 runtime.
+# Results go to stdout and to target/benchmarks/virtual-threads.csv.
+#
+# Usage: scripts/load-test-virtual-threads.sh [concurrency...]   (default: 50 200 1000)
+set -euo pipefail
+
+CONCURRENCY=("${@:-50 200 1000}")
+CONCURRENCY=(${CONCURRENCY[*]})
+DURATION=${DURATION:-60s}
+PORT=${PORT:-8080}
+URL=${URL:-"http://localhost:$PORT/users/list/by-birth-date-range?from=1980-01-01&to=1980-12-31&size=100"}
+OUT=target/benchmarks/virtual-threads.csv
+
+export SPRING_DATASOURCE_URL=${SPRING_DATASOURCE_URL:-jdbc:mariadb://localhost:3306}
+export SPRING_DATASOURCE_USERNAME=${SPRING_DATASOURCE_USERNAME:-root}
+export SPRING_DATASOURCE_PASSWORD=${SPRING_DATASOURCE_PASSWORD:-root}
+export DB_NAME=${DB_NAME:-microservices}
+export USER_REGISTRATION_MIN_AGE=${USER_REGISTRATION_MIN_AGE:-18}
+export SPRING_JPA_SHOW_SQL=false
+
+java -version 2>&1 | grep -q '"2[1-9]' || { echo "Java 21 or newer is required" >&2; exit 1; }
+command -v hey > /dev/null || { echo "hey (https://github.com/rakyll/hey) is required" >&2; exit 1; }
+
+./mvnw -B -q -DskipTests package
+JAR=$(ls target/*.jar | grep -v plain | head -1)
+
+mkdir -p "$(dirname "$OUT")"
+echo "virtual_threads,concurrency,requests_per_sec,p99_ms" > "$OUT"
+
+for virtual in false true; do
+    VIRTUAL_THREADS_ENABLED=$virtual java -jar "$JAR" --server.port="$PORT" > "target/benchmarks/app-virtual-$virtual.log" 2>&1 &
+    app=$!
+    trap 'kill $app 2> /dev/null' EXIT
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+    for concurrency in "${CONCURRENCY[@]}"; do
+        hey -z 10s -c "$concurrency" "$URL" > /dev/null
+        report=$(hey -z "$DURATION" -c "$concurrency" "$URL")
+        rps=$(awk '/Requests\/sec/ {print $2}' <<< "$report")
+        p99=$(awk '/ 99% in / {printf "%.1f", $3 * 1000}' <<< "$report")
+        echo "virtual_threads=$virtual concurrency=$concurrency rps=$rps p99=${p99}ms"
+        echo "$virtual,$concurrency,$rps,$p99" >> "$OUT"
+    done
+
+    kill "$app"
+    wait "$app" 2> /dev/null || true
+done
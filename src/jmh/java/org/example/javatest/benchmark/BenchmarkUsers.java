@@ -0,0 +1,41 @@
+package org.example.javatest.benchmark;
+
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkUsers {
+
+    static final LocalDate FROM = LocalDate.of(1950, 1, 1);
+    static final LocalDate TO = LocalDate.of(2005, 12, 31);
+
+    private BenchmarkUsers() {
+    }
+
+    static List<User> users(int count) {
+        var users = new ArrayList<User>(count);
+        for (int i = 0; i < count; i++) {
+            var user = new User("user" + i + "@example.com", "First" + i, "Last" + i, birthDate(i),
+                    i + " Main Street, Springfield", "+1555" + String.format("%07d", i));
+            user.setId((long) i + 1);
+            users.add(user);
+        }
+        return users;
+    }
+
+    static List<UserDto> dtos(int count) {
+        var dtos = new ArrayList<UserDto>(count);
+        for (int i = 0; i < count; i++) {
+            dtos.add(new UserDto((long) i + 1, "user" + i + "@example.com", "First" + i, "Last" + i,
+                    birthDate(i), i + " Main Street, Springfield", "+1555" + String.format("%07d", i)));
+        }
+        return dtos;
+    }
+
+    private static LocalDate birthDate(int i) {
+        return FROM.plusDays(i % 20_000);
+    }
+}
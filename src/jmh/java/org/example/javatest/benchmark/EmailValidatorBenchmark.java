@@ -0,0 +1,51 @@
+package org.example.javatest.benchmark;
+
+import org.example.javatest.validation.EmailValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmailValidatorBenchmark {
+
+    private static final String EMAIL_PATTERN = "^[\\w.-]+@[A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)*(\\.[A-Za-z]{2,})$";
+    private static final Pattern COMPILED_EMAIL_PATTERN = Pattern.compile(EMAIL_PATTERN);
+
+    @Param({"john.doe@example.com", "first.last-name@mail.sub.example.co.uk", "not-an-email@", "missing.at.example.com"})
+    private String email;
+
+    private EmailValidator emailValidator;
+
+    @Setup
+    public void setUp() {
+        emailValidator = new EmailValidator();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return emailValidator.isValid(email, null);
+    }
+
+    @Benchmark
+    public boolean regex() {
+        return Pattern.matches(EMAIL_PATTERN, email);
+    }
+
+    @Benchmark
+    public boolean precompiledRegex() {
+        return COMPILED_EMAIL_PATTERN.matcher(email).matches();
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.javatest.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.dto.error.ApiError;
+import org.example.javatest.exception.BusinessException;
+import org.example.javatest.exception.UserExistException;
+import org.example.javatest.exception.UserNotFoundException;
+import org.example.javatest.exhandler.ExpectedErrorLog;
+import org.example.javatest.exhandler.GlobalExceptionHandler;
+import org.jboss.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Cost of turning a 404 or 409 into a response body, thrown from {@code depth} frames below the handler. "before"
+ * replays the previous path: an exception with a stack trace, logged at ERROR with the trace, an {@link ApiError}
+ * from the builder and Jackson serialization. "after" throws the stackless exception and calls the real handler.
+ * Both log to a discarding async appender, as configured in the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ErrorPathBenchmark {
+
+    private static final String BEFORE_LOGGER = "benchmark.errors.before";
+
+    @Param({"404", "409"})
+    private int status;
+
+    @Param({"20", "100"})
+    private int depth;
+
+    private LoggerContext loggerContext;
+    private Logger beforeLog;
+    private MeterRegistry meterRegistry;
+    private ObjectMapper objectMapper;
+    private GlobalExceptionHandler handler;
+    private ServletWebRequest request;
+
+    @Setup
+    public void setUp() {
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        attach(BEFORE_LOGGER, Level.INFO);
+        attach(ExpectedErrorLog.class.getName(), Level.INFO);
+        beforeLog = Logger.getLogger(BEFORE_LOGGER);
+
+        meterRegistry = new SimpleMeterRegistry();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        handler = new GlobalExceptionHandler(meterRegistry, new ExpectedErrorLog(Duration.ofSeconds(10)));
+        request = new ServletWebRequest(new MockHttpServletRequest("POST", "/users"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public byte[] before() throws JsonProcessingException {
+        try {
+            throwLegacy(depth);
+            throw new IllegalStateException();
+        } catch (LegacyException ex) {
+            var httpStatus = HttpStatus.valueOf(status);
+            beforeLog.errorf(ex, "%s caught: %s Path: %s", ex.getClass().getSimpleName(), ex.getMessage(),
+                    request.getDescription(false));
+            meterRegistry.counter(GlobalExceptionHandler.ERROR_COUNTER, "exception", ex.getClass().getSimpleName(),
+                    "status", String.valueOf(httpStatus.value())).increment();
+            var body = ApiError.builder().error(httpStatus.getReasonPhrase()).message(ex.getMessage())
+                    .path(request.getDescription(false))
+                    .timestamp(Instant.now()).status(httpStatus.value()).build();
+            return objectMapper.writeValueAsBytes(ResponseEntity.status(httpStatus).body(body).getBody());
+        }
+    }
+
+    @Benchmark
+    public byte[] after() {
+        try {
+            throwBusiness(depth);
+            throw new IllegalStateException();
+        } catch (UserNotFoundException ex) {
+            return handler.handleUserNotFoundException(ex, request).getBody();
+        } catch (UserExistException ex) {
+            return handler.handleUserExistException(ex, request).getBody();
+        }
+    }
+
+    private void throwLegacy(int remaining) {
+        if (remaining > 0) {
+            throwLegacy(remaining - 1);
+            return;
+        }
+        throw new LegacyException(message());
+    }
+
+    private void throwBusiness(int remaining) {
+        if (remaining > 0) {
+            throwBusiness(remaining - 1);
+            return;
+        }
+        BusinessException ex = status == 404 ? new UserNotFoundException(message()) : new UserExistException(message());
+        throw ex;
+    }
+
+    private String message() {
+        return status == 404 ? "User with id: 42 not found" : "User with this email already exists.";
+    }
+
+    private void attach(String name, Level level) {
+        var encoder = new PatternLayoutEncoder();
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n");
+        encoder.setContext(loggerContext);
+        encoder.start();
+        var discarding = new OutputStreamAppender<ILoggingEvent>();
+        discarding.setContext(loggerContext);
+        discarding.setEncoder(encoder);
+        discarding.setOutputStream(OutputStream.nullOutputStream());
+        discarding.start();
+        var async = new AsyncAppender();
+        async.setContext(loggerContext);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(8192 / 5);
+        async.setNeverBlock(true);
+        async.addAppender(discarding);
+        async.start();
+
+        var logger = loggerContext.getLogger(name);
+        logger.setLevel(level);
+        logger.setAdditive(false);
+        logger.addAppender(async);
+    }
+
+    /**
+     * The business exceptions as they were before: plain runtime exceptions that capture a stack trace.
+     */
+    private static final class LegacyException extends RuntimeException {
+
+        private LegacyException(String message) {
+            super(message);
+        }
+    }
+}
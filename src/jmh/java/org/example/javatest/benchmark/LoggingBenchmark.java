@@ -0,0 +1,124 @@
+package org.example.javatest.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.example.javatest.dto.request.CreateUserRequest;
+import org.jboss.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Compares the logging done for one create-user request before and after the switch to lazy messages and the
+ * async appender. Output goes to a discarding stream, so the numbers are the cost paid by the request thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoggingBenchmark {
+
+    private static final String SYNC_PATTERN_LOGGER = "benchmark.sync.pattern";
+    private static final String ASYNC_PATTERN_LOGGER = "benchmark.async.pattern";
+    private static final String ASYNC_JSON_LOGGER = "benchmark.async.json";
+
+    private final CreateUserRequest request = new CreateUserRequest("john.doe@example.com", "John", "Doe",
+            LocalDate.of(1990, 5, 15), "1 Main Street, Springfield", "+15550000001");
+    private final Long userId = 42L;
+
+    private LoggerContext loggerContext;
+    private Logger syncPattern;
+    private Logger asyncPattern;
+    private Logger asyncJson;
+
+    @Setup
+    public void setUp() {
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        var pattern = new PatternLayoutEncoder();
+        pattern.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n");
+        var json = new LogstashEncoder();
+
+        attach(SYNC_PATTERN_LOGGER, discarding(pattern));
+        attach(ASYNC_PATTERN_LOGGER, async(discarding(pattern)));
+        attach(ASYNC_JSON_LOGGER, async(discarding(json)));
+
+        syncPattern = Logger.getLogger(SYNC_PATTERN_LOGGER);
+        asyncPattern = Logger.getLogger(ASYNC_PATTERN_LOGGER);
+        asyncJson = Logger.getLogger(ASYNC_JSON_LOGGER);
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void before() {
+        syncPattern.info("Creating a new user with details: " + request);
+        syncPattern.info("Attempting to create user: " + request);
+        syncPattern.info("User created successfully: " + userId);
+        syncPattern.info("User created successfully.");
+    }
+
+    @Benchmark
+    public void afterPattern() {
+        asyncPattern.debug("Creating a new user");
+        asyncPattern.debug("Attempting to create user");
+        asyncPattern.infof("User created successfully: %d", userId);
+    }
+
+    @Benchmark
+    public void afterJson() {
+        asyncJson.debug("Creating a new user");
+        asyncJson.debug("Attempting to create user");
+        asyncJson.infof("User created successfully: %d", userId);
+    }
+
+    private void attach(String name, Appender<ILoggingEvent> appender) {
+        var logger = loggerContext.getLogger(name);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    private Appender<ILoggingEvent> discarding(Encoder<ILoggingEvent> encoder) {
+        encoder.setContext(loggerContext);
+        encoder.start();
+        var appender = new OutputStreamAppender<ILoggingEvent>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    private Appender<ILoggingEvent> async(Appender<ILoggingEvent> delegate) {
+        var appender = new AsyncAppender();
+        appender.setContext(loggerContext);
+        appender.setQueueSize(8192);
+        appender.setDiscardingThreshold(8192 / 5);
+        appender.setNeverBlock(true);
+        appender.addAppender(delegate);
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.javatest.benchmark;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.example.javatest.converter.ColumnarUserResponseHttpMessageConverter;
+import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.jboss.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode time of a range response per format, through the same message converters the application registers.
+ * The encoded size of each combination is logged once per trial, at {@code INFO}, outside the JMH results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseSerializationBenchmark {
+
+    private static final Logger log = Logger.getLogger(ResponseSerializationBenchmark.class);
+
+    @Param({"1", "1000", "10000", "100000"})
+    private int users;
+
+    @Param({"json", "columnar", "cbor", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private HttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private AllUserByDateRangeResponse response;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        var objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        HttpMessageConverter<?> selected = switch (format) {
+            case "json" -> new MappingJackson2HttpMessageConverter(objectMapper);
+            case "columnar" -> new ColumnarUserResponseHttpMessageConverter(objectMapper.getFactory());
+            case "cbor" -> new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor()
+                    .factory(new CBORFactory())
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build());
+            case "smile" -> new MappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder.smile()
+                    .factory(new SmileFactory())
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build());
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        converter = (HttpMessageConverter<Object>) selected;
+        mediaType = converter.getSupportedMediaTypes().get(0);
+        response = new AllUserByDateRangeResponse(BenchmarkUsers.dtos(users));
+
+        var counter = new CountingOutputStream();
+        write(counter);
+        log.infof("%s users=%d gzip=%s: %d bytes", format, users, gzip, counter.count);
+    }
+
+    @Benchmark
+    public void writeResponse() throws IOException {
+        write(OutputStream.nullOutputStream());
+    }
+
+    private void write(OutputStream target) throws IOException {
+        if (gzip) {
+            try (var compressed = new GZIPOutputStream(target, 8192)) {
+                converter.write(response, mediaType, new StreamOutputMessage(compressed));
+            }
+        } else {
+            converter.write(response, mediaType, new StreamOutputMessage(target));
+        }
+    }
+
+    private record StreamOutputMessage(OutputStream body) implements HttpOutputMessage {
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return new HttpHeaders();
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.javatest.benchmark;
+
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.mapper.UserMapper;
+import org.example.javatest.model.User;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserMapperBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int users;
+
+    private UserMapper userMapper;
+    private List<User> entities;
+
+    @Setup
+    public void setUp() {
+        userMapper = Mappers.getMapper(UserMapper.class);
+        entities = BenchmarkUsers.users(users);
+    }
+
+    @Benchmark
+    public List<UserDto> toUserDto() {
+        var dtos = new ArrayList<UserDto>(entities.size());
+        for (var user : entities) {
+            dtos.add(userMapper.toUserDto(user));
+        }
+        return dtos;
+    }
+}
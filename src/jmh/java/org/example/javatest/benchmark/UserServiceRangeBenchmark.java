@@ -0,0 +1,62 @@
+package org.example.javatest.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.example.javatest.repository.UserRepository;
+import org.example.javatest.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Measures the service layer on top of a stubbed repository, so the numbers cover validation, paging and
+ * response assembly but not the database round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserServiceRangeBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int users;
+
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        List<UserDto> dtos = BenchmarkUsers.dtos(users);
+        // a plain proxy rather than a Mockito mock, whose per-call bookkeeping would dwarf the service itself
+        var userRepository = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByBirthDateBetween", "findFirstPageByBirthDateBetween" -> dtos;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        userService = new UserService(userRepository, null, null, null, null, null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userService, "maxPageSize", Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public AllUserByDateRangeResponse findUsersByBirthDateRange() {
+        return userService.findUsersByBirthDateRange(BenchmarkUsers.FROM, BenchmarkUsers.TO);
+    }
+
+    @Benchmark
+    public AllUserByDateRangeResponse findUsersByBirthDateRangePage() {
+        return userService.findUsersByBirthDateRange(BenchmarkUsers.FROM, BenchmarkUsers.TO, null, users);
+    }
+}
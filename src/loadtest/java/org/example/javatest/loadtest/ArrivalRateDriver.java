@@ -0,0 +1,113 @@
+package org.example.javatest.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are sent at a fixed arrival rate whether or not earlier ones have completed. Latency is
+ * measured from the moment a request was due, not from when it was actually sent, so a stalled server shows up as
+ * latency instead of quietly lowering the request rate (coordinated omission).
+ */
+final class ArrivalRateDriver {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final HttpClient client;
+    private final UserWorkload workload;
+    private final double rate;
+
+    ArrivalRateDriver(HttpClient client, UserWorkload workload, double rate) {
+        this.client = client;
+        this.workload = workload;
+        this.rate = rate;
+    }
+
+    Map<Operation, OperationResult> run(Duration duration) throws InterruptedException {
+        var stats = new EnumMap<Operation, OperationStats>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        var inFlight = new AtomicInteger();
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * intervalNanos);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            var operation = workload.nextOperation();
+            var operationStats = stats.get(operation);
+            inFlight.incrementAndGet();
+            client.sendAsync(workload.request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        operationStats.record(System.nanoTime() - due, response == null ? 0 : response.statusCode());
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        var results = new EnumMap<Operation, OperationResult>(Operation.class);
+        stats.forEach((operation, operationStats) -> results.put(operation, operationStats.result(seconds)));
+        return results;
+    }
+
+    private static final class OperationStats {
+
+        private final Recorder latency = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(long nanos, int status) {
+            latency.recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        OperationResult result(double seconds) {
+            Histogram histogram = latency.getIntervalHistogram();
+            var counts = new TreeMap<String, Long>();
+            long errors = 0;
+            for (var entry : statuses.entrySet()) {
+                long count = entry.getValue().sum();
+                counts.put(entry.getKey() == 0 ? "failed" : String.valueOf(entry.getKey()), count);
+                if (entry.getKey() == 0 || entry.getKey() >= 400) {
+                    errors += count;
+                }
+            }
+            return new OperationResult(histogram.getTotalCount(), errors, counts,
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+
+    record OperationResult(long count, long errors, Map<String, Long> statuses, double throughput,
+                           double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.javatest.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.javatest.JavaTestApplication;
+import org.example.javatest.cache.EmailExistenceIndex;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test: starts the application in this JVM against an embedded H2 database in MariaDB mode (or the
+ * database given by {@code --db-url}), seeds it, drives the mixed workload at a fixed rate and writes throughput and
+ * latency percentiles per operation to a JSON file. Run it with {@code mvn -Ploadtest verify}; add the
+ * {@code reactive} profile to drive the WebFlux build with {@code --stack=reactive}.
+ */
+public final class LoadTest {
+
+    private static final String REACTIVE_APPLICATION = "org.example.javatest.reactive.ReactiveJavaTestApplication";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadTestOptions.parse(args);
+        try (var context = start(options)) {
+            var jdbcTemplate = context.getBeanProvider(JdbcTemplate.class).getIfAvailable(() -> new JdbcTemplate(
+                    new DriverManagerDataSource(options.dbUrl(), options.dbUsername(), options.dbPassword())));
+            var seeded = new UserSeeder(jdbcTemplate).seed(options.users());
+            context.getBeanProvider(EmailExistenceIndex.class).ifAvailable(EmailExistenceIndex::rebuild);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            var workload = new UserWorkload(URI.create("http://localhost:" + port), seeded, options.mix(),
+                    options.rangeDays(), options.pageSize());
+            var client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            var driver = new ArrivalRateDriver(client, workload, options.rate());
+
+            System.out.printf("Warming up for %s at %.0f requests/s%n", options.warmup(), options.rate());
+            driver.run(options.warmup());
+            System.out.printf("Measuring for %s at %.0f requests/s%n", options.duration(), options.rate());
+            var results = driver.run(options.duration());
+
+            results.forEach((operation, result) -> System.out.printf(
+                    "%-6s count=%d errors=%d rps=%.1f p50=%.2fms p99=%.2fms p999=%.2fms%n",
+                    operation, result.count(), result.errors(), result.throughput(),
+                    result.p50Ms(), result.p99Ms(), result.p999Ms()));
+            write(options, results);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestOptions options) throws ClassNotFoundException {
+        var args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + options.dbUrl(),
+                "--spring.datasource.username=" + options.dbUsername(),
+                "--spring.datasource.password=" + options.dbPassword(),
+                "--user.registration.min-age=18",
+                "--server.port=0",
+                "--logging.level.root=WARN"));
+        if (options.stack() == LoadTestOptions.Stack.MVC) {
+            return SpringApplication.run(JavaTestApplication.class, args.toArray(String[]::new));
+        }
+        args.addAll(List.of(
+                "--spring.main.web-application-type=reactive",
+                "--spring.r2dbc.url=" + options.r2dbcUrl(),
+                "--spring.r2dbc.username=" + options.dbUsername(),
+                "--spring.r2dbc.password=" + options.dbPassword(),
+                "--spring.flyway.url=" + options.dbUrl(),
+                "--spring.flyway.user=" + options.dbUsername(),
+                "--spring.flyway.password=" + options.dbPassword(),
+                "--logging.level.io.r2dbc.h2.H2Connection=ERROR"));
+        return SpringApplication.run(Class.forName(REACTIVE_APPLICATION), args.toArray(String[]::new));
+    }
+
+    private static void write(LoadTestOptions options, Map<Operation, ArrivalRateDriver.OperationResult> results)
+            throws Exception {
+        var report = new LinkedHashMap<String, Object>();
+        report.put("label", options.label());
+        report.put("stack", options.stack().name().toLowerCase());
+        report.put("timestamp", Instant.now().toString());
+        report.put("database", options.embedded() ? "h2" : options.dbUrl());
+        report.put("users", options.users());
+        report.put("rate", options.rate());
+        report.put("durationSeconds", options.duration().toSeconds());
+        var operations = new LinkedHashMap<String, Object>();
+        results.forEach((operation, result) -> operations.put(operation.name().toLowerCase(), result));
+        report.put("operations", operations);
+
+        Files.createDirectories(options.out().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.out().toFile(), report);
+        System.out.println("Results written to " + options.out());
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.javatest.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line options, given as {@code --name=value}. Unknown names are rejected so a typo does not silently run
+ * the default workload.
+ */
+record LoadTestOptions(String label,
+                       Stack stack,
+                       String dbUrl,
+                       String dbUsername,
+                       String dbPassword,
+                       long users,
+                       double rate,
+                       Duration warmup,
+                       Duration duration,
+                       Map<Operation, Integer> mix,
+                       int rangeDays,
+                       int pageSize,
+                       Path out) {
+
+    static final String EMBEDDED_DB_URL =
+            "jdbc:h2:mem:loadtest;MODE=MariaDB;DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE";
+
+    static LoadTestOptions parse(String[] args) {
+        var values = new HashMap<>(Map.of(
+                "label", "local",
+                "db-url", EMBEDDED_DB_URL,
+                "db-username", "sa",
+                "db-password", "",
+                "users", "100000",
+                "rate", "200",
+                "warmup", "15s",
+                "duration", "60s",
+                "mix", "create=10,update=20,delete=5,range=65"));
+        values.putAll(Map.of(
+                "stack", "mvc",
+                "range-days", "30",
+                "page-size", "100",
+                "out", "target/loadtest/result.json"));
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !values.containsKey(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown option: " + arg + "; expected one of " + values.keySet());
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(
+                values.get("label"),
+                Stack.valueOf(values.get("stack").toUpperCase()),
+                values.get("db-url"),
+                values.get("db-username"),
+                values.get("db-password"),
+                Long.parseLong(values.get("users")),
+                Double.parseDouble(values.get("rate")),
+                DurationStyle.detectAndParse(values.get("warmup")),
+                DurationStyle.detectAndParse(values.get("duration")),
+                parseMix(values.get("mix")),
+                Integer.parseInt(values.get("range-days")),
+                Integer.parseInt(values.get("page-size")),
+                Path.of(values.get("out")));
+    }
+
+    boolean embedded() {
+        return dbUrl.startsWith("jdbc:h2:");
+    }
+
+    /**
+     * The R2DBC form of {@code dbUrl}, for the reactive stack. Both name the same in-memory database when embedded.
+     */
+    String r2dbcUrl() {
+        return dbUrl.replaceFirst("^jdbc:h2:mem:", "r2dbc:h2:mem:///").replaceFirst("^jdbc:", "r2dbc:");
+    }
+
+    /**
+     * Which build of the API to start: the default servlet one, or the WebFlux and R2DBC one, which needs the
+     * {@code reactive} Maven profile as well.
+     */
+    enum Stack {
+        MVC,
+        REACTIVE
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        var weights = new EnumMap<Operation, Integer>(Operation.class);
+        for (String entry : mix.split(",")) {
+            var parts = entry.split("=");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,5 @@
+package org.example.javatest.loadtest;
+
+enum Operation {
+    CREATE, UPDATE, DELETE, RANGE
+}
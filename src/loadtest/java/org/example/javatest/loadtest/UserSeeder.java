@@ -0,0 +1,61 @@
+package org.example.javatest.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * Tops the {@code users} table up to the requested size with plain JDBC batches. Rows from earlier runs against the
+ * same database are kept, so a large data set only has to be seeded once.
+ */
+final class UserSeeder {
+
+    static final LocalDate MIN_BIRTH_DATE = LocalDate.of(1950, 1, 1);
+    static final LocalDate MAX_BIRTH_DATE = LocalDate.of(2005, 12, 31);
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final String INSERT_SQL =
+            "INSERT INTO users (email, first_name, last_name, birth_date) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    UserSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    SeededUsers seed(long users) {
+        long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        long missing = users - existing;
+        if (missing > 0) {
+            System.out.printf("Seeding %d users (%d present)%n", missing, existing);
+            insert(missing);
+        }
+        var ids = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM users");
+        return new SeededUsers(((Number) ids.get("min_id")).longValue(), ((Number) ids.get("max_id")).longValue());
+    }
+
+    private void insert(long count) {
+        var random = new SplittableRandom(count);
+        long days = MAX_BIRTH_DATE.toEpochDay() - MIN_BIRTH_DATE.toEpochDay();
+        long runId = System.currentTimeMillis();
+        var batch = new ArrayList<Object[]>(BATCH_SIZE);
+        for (long i = 0; i < count; i++) {
+            var birthDate = MIN_BIRTH_DATE.plusDays(random.nextLong(days + 1));
+            batch.add(new Object[]{"seed-" + runId + "-" + i + "@loadtest.example", "Seed", "User" + i,
+                    Date.valueOf(birthDate)});
+            if (batch.size() == BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+            if ((i + 1) % 1_000_000 == 0) {
+                System.out.printf("  %d / %d%n", i + 1, count);
+            }
+        }
+    }
+
+    record SeededUsers(long minId, long maxId) {
+    }
+}
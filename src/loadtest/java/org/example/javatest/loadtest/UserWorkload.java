@@ -0,0 +1,80 @@
+package org.example.javatest.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Builds the requests of the mixed workload. Deletes consume seeded ids from the top of the id range, and updates
+ * only pick ids below that point, so neither runs into users that no longer exist. Creates use fresh emails.
+ */
+final class UserWorkload {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final long minId;
+    private final AtomicLong nextDeleteId;
+    private final AtomicLong sequence = new AtomicLong();
+    private final long runId = System.currentTimeMillis();
+    private final int rangeDays;
+    private final int pageSize;
+    private final Operation[] schedule;
+
+    UserWorkload(URI baseUri, UserSeeder.SeededUsers seeded, Map<Operation, Integer> mix, int rangeDays,
+                 int pageSize) {
+        this.baseUri = baseUri;
+        this.minId = seeded.minId();
+        this.nextDeleteId = new AtomicLong(seeded.maxId());
+        this.rangeDays = rangeDays;
+        this.pageSize = pageSize;
+        this.schedule = mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+    }
+
+    Operation nextOperation() {
+        return schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+    }
+
+    HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case CREATE -> json("/users").POST(body(null)).build();
+            case UPDATE -> json("/users").PUT(body(randomLiveId())).build();
+            case DELETE -> HttpRequest.newBuilder(baseUri.resolve("/users/" + nextDeleteId.getAndDecrement()))
+                    .timeout(REQUEST_TIMEOUT).DELETE().build();
+            case RANGE -> HttpRequest.newBuilder(baseUri.resolve(rangePath())).timeout(REQUEST_TIMEOUT)
+                    .header("Accept", "application/json").GET().build();
+        };
+    }
+
+    private long randomLiveId() {
+        return ThreadLocalRandom.current().nextLong(minId, Math.max(minId, nextDeleteId.get()) + 1);
+    }
+
+    private String rangePath() {
+        long days = UserSeeder.MAX_BIRTH_DATE.toEpochDay() - UserSeeder.MIN_BIRTH_DATE.toEpochDay() - rangeDays;
+        var from = UserSeeder.MIN_BIRTH_DATE.plusDays(ThreadLocalRandom.current().nextLong(Math.max(1, days)));
+        return "/users/list/by-birth-date-range?from=" + from + "&to=" + from.plusDays(rangeDays) + "&size=" + pageSize;
+    }
+
+    private HttpRequest.Builder json(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher body(Long id) {
+        long n = sequence.incrementAndGet();
+        var birthDate = LocalDate.of(1960, 1, 1).plusDays(n % 15_000);
+        var email = "load-" + runId + "-" + n + "@loadtest.example";
+        var idField = id == null ? "" : "\"id\":" + id + ",";
+        return HttpRequest.BodyPublishers.ofString("{" + idField + "\"email\":\"" + email + "\","
+                + "\"firstName\":\"Load\",\"lastName\":\"Test" + n + "\",\"birthDate\":\"" + birthDate + "\"}");
+    }
+}
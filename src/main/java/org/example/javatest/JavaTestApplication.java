@@ -3,7 +3,11 @@ package org.example.javatest;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+/**
+ * R2DBC is excluded by name: it is only on the class path in the {@code reactive} build, whose own application
+ * uses it, and would otherwise add a second transaction manager here.
+ */
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
 public class JavaTestApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,171 @@
+package org.example.javatest.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.jbosslog.JBossLog;
+import org.example.javatest.datasource.DataSourceRoute;
+import org.example.javatest.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process index answering "might this email already be registered?".
+ * <p>
+ * A negative answer is definite and lets callers skip the database. Until the first build from the
+ * {@code email} column has finished, and whenever the index is disabled, every email is reported as a
+ * possible match. Bloom filters cannot forget, so deleted or changed emails linger as false positives
+ * until the next scheduled rebuild.
+ */
+@JBossLog
+@Component
+public class EmailExistenceIndex implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final boolean enabled;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter rebuilding;
+    private volatile boolean ready;
+
+    private final LongAdder definiteMisses = new LongAdder();
+    private final LongAdder confirmedHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public EmailExistenceIndex(UserRepository userRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${user.email-index.expected-insertions:10000000}") long expectedInsertions,
+                               @Value("${user.email-index.false-positive-probability:0.01}") double falsePositiveProbability,
+                               @Value("${user.email-index.enabled:true}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.enabled = enabled;
+        this.current = new BloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    public boolean mightContain(String email) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        if (current.mightContain(normalize(email))) {
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    /**
+     * Records what the database answered for an email this index reported as a possible match.
+     */
+    public void recordLookup(boolean exists) {
+        if (!enabled || !ready) {
+            return;
+        }
+        if (exists) {
+            confirmedHits.increment();
+        } else {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * Adds the email once the surrounding transaction commits, or immediately outside a transaction.
+     * Adding after commit guarantees that a concurrent rebuild either reads the row or sees this call.
+     */
+    public void addAfterCommit(String email) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(email);
+                }
+            });
+        } else {
+            add(email);
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${user.email-index.rebuild-interval:PT6H}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        var fresh = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        rebuilding = fresh;
+        try {
+            // A replica that lags could omit recent emails, and a false negative would skip the uniqueness check.
+            DataSourceRoute.onPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (var emails = userRepository.streamAllEmails()) {
+                    emails.forEach(email -> fresh.put(normalize(email)));
+                }
+            }));
+            current = fresh;
+            ready = true;
+            log.infof("Email index rebuilt in %d ms", (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.errorf(e, "Email index rebuild failed, keeping the previous index: %s", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("user.email.index.lookups", definiteMisses, LongAdder::sum)
+                .tag("result", "definite_miss")
+                .description("Email checks answered by the index without a database query")
+                .register(registry);
+        FunctionCounter.builder("user.email.index.lookups", confirmedHits, LongAdder::sum)
+                .tag("result", "confirmed_hit")
+                .description("Possible matches the database confirmed")
+                .register(registry);
+        FunctionCounter.builder("user.email.index.lookups", falsePositives, LongAdder::sum)
+                .tag("result", "false_positive")
+                .description("Possible matches the database did not confirm")
+                .register(registry);
+        Gauge.builder("user.email.index.fill.ratio", this, index -> index.current.fillRatio())
+                .description("Fraction of set bits in the active filter")
+                .register(registry);
+        Gauge.builder("user.email.index.expected.fpp", this, index -> index.current.expectedFalsePositiveProbability())
+                .description("False-positive probability implied by the current fill ratio")
+                .register(registry);
+        Gauge.builder("user.email.index.ready", this, index -> index.ready ? 1 : 0)
+                .register(registry);
+    }
+
+    private void add(String email) {
+        var target = rebuilding;
+        var normalized = normalize(email);
+        current.put(normalized);
+        if (target != null) {
+            target.put(normalized);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.javatest.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.javatest.datasource.DataSourceRoute;
+import org.example.javatest.datasource.ReadYourWrites;
+import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lets identical birth-date range queries that arrive while one is already running wait for that one instead of
+ * running their own.
+ * <p>
+ * The first caller of a query runs it on its own thread and outside any transaction of the others; callers that
+ * arrive before it finishes share its response object, or its exception. Nothing is kept once it finishes, so a
+ * caller never sees a result that was complete before it arrived. Callers only contend on the map bin of their own
+ * query.
+ * <p>
+ * A caller that must read from the primary, because it asked to or because its client has just written, never
+ * joins: the running query may have started before its write committed, or be reading a replica that is behind.
+ */
+@Component
+public class RangeQueryCoalescer implements MeterBinder {
+
+    private final ConcurrentHashMap<RangeQuery, CompletableFuture<AllUserByDateRangeResponse>> inFlight =
+            new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    public RangeQueryCoalescer(@Value("${user.search.coalescing.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public AllUserByDateRangeResponse coalesce(RangeQuery query, Supplier<AllUserByDateRangeResponse> load) {
+        if (!enabled) {
+            return load.get();
+        }
+        var pending = new CompletableFuture<AllUserByDateRangeResponse>();
+        var running = inFlight.putIfAbsent(query, pending);
+        if (running != null && (DataSourceRoute.isPrimaryRequired() || ReadYourWrites.isPending())) {
+            bypassed.increment();
+            return load.get();
+        }
+        if (running != null) {
+            joined.increment();
+            return await(running);
+        }
+
+        executed.increment();
+        try {
+            var response = load.get();
+            pending.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(query, pending);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("user.search.coalescing", executed, LongAdder::sum)
+                .tag("outcome", "executed")
+                .description("Range queries run against the database")
+                .register(registry);
+        FunctionCounter.builder("user.search.coalescing", joined, LongAdder::sum)
+                .tag("outcome", "joined")
+                .description("Range queries answered by an identical query already in flight")
+                .register(registry);
+        FunctionCounter.builder("user.search.coalescing", bypassed, LongAdder::sum)
+                .tag("outcome", "bypassed")
+                .description("Range queries run beside an identical one because the caller must see its own writes")
+                .register(registry);
+        Gauge.builder("user.search.coalescing.in.flight", inFlight, ConcurrentHashMap::size)
+                .description("Distinct range queries currently running")
+                .register(registry);
+    }
+
+    private static AllUserByDateRangeResponse await(CompletableFuture<AllUserByDateRangeResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Everything the range endpoint's response depends on; {@code cursor} and {@code size} are {@code null} for
+     * the unpaged list.
+     */
+    public record RangeQuery(LocalDate from, LocalDate to, String cursor, Integer size) {
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.javatest.config;
+
+import org.example.javatest.datasource.HikariPoolSizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Pool sizing for the primary and replica pools. Without {@code user.datasource.pool.database-cores} the database is
+ * assumed to have as many cores as this host.
+ */
+@Configuration
+public class DataSourcePoolConfig {
+
+    @Bean
+    public static HikariPoolSizer hikariPoolSizer(
+            @Value("${user.datasource.pool.max-size.primary:0}") int primaryMaxSize,
+            @Value("${user.datasource.pool.max-size.replica:0}") int replicaMaxSize,
+            @Value("${user.datasource.pool.database-cores:0}") int databaseCores,
+            @Value("${user.datasource.pool.effective-spindles:1}") int effectiveSpindles,
+            @Value("${user.datasource.pool.expected-concurrency:0}") int expectedConcurrency) {
+        int cores = databaseCores > 0 ? databaseCores : Runtime.getRuntime().availableProcessors();
+        return new HikariPoolSizer(cores, effectiveSpindles, expectedConcurrency,
+                Map.of("primary", primaryMaxSize, "replica", replicaMaxSize));
+    }
+}
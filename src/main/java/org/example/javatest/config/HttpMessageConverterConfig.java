@@ -0,0 +1,49 @@
+package org.example.javatest.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.example.javatest.converter.ColumnarUserResponseHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Extra response formats picked by the {@code Accept} header. The binary formats share the application's Jackson
+ * settings but write dates as numeric arrays, which are smaller than ISO strings. They are appended after the JSON
+ * converter, so a missing or wildcard {@code Accept}, including a browser's that only allows any type with a lower
+ * {@code q}, gets plain JSON; these formats are only written when asked for by name.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class HttpMessageConverterConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
+        configurer.defaultContentType(MediaType.APPLICATION_JSON, MediaType.ALL);
+    }
+
+    /**
+     * Replaces the default CBOR and Smile converters, which do not use the application's Jackson settings.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)));
+        converters.add(new ColumnarUserResponseHttpMessageConverter(objectMapper.getFactory()));
+    }
+}
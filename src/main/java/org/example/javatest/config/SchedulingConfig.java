@@ -0,0 +1,13 @@
+package org.example.javatest.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs on Spring Boot's task scheduler. Its pool, {@code spring.task.scheduling.pool.size},
+ * has a thread for each job, so a long email index rebuild or purge never delays the outbox publisher.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,28 @@
+package org.example.javatest.config;
+
+import lombok.extern.jbosslog.JBossLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+@JBossLog
+@Configuration
+public class ThreadingConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode() {
+        if (!virtualThreadsEnabled) {
+            log.info("Serving requests on platform threads");
+        } else if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            log.info("Serving requests on virtual threads");
+        } else {
+            log.warnf("Virtual threads are enabled but require Java 21, running on %s; falling back to platform threads",
+                    JavaVersion.getJavaVersion());
+        }
+    }
+}
@@ -1,26 +1,52 @@
 package org.example.javatest.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.jbosslog.JBossLog;
+import org.apache.coyote.BadRequestException;
+import org.example.javatest.cache.RangeQueryCoalescer;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.request.BirthDateGrouping;
 import org.example.javatest.dto.request.CreateUserRequest;
 import org.example.javatest.dto.request.UpdateUserRequest;
 import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.example.javatest.dto.response.BirthDateStatsResponse;
+import org.example.javatest.dto.response.BulkUserResponse;
+import org.example.javatest.dto.response.UserChangesResponse;
+import org.example.javatest.events.UserEventStream;
+import org.example.javatest.service.UserChangeService;
 import org.example.javatest.service.UserService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 @JBossLog
 @RestController
@@ -29,32 +55,84 @@ import java.time.LocalDate;
 public class UserController {
 
     private final UserService userService;
+    private final UserChangeService userChangeService;
+    private final UserEventStream userEventStream;
+    private final RangeQueryCoalescer rangeQueryCoalescer;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<Void> createUser(@Valid @RequestBody CreateUserRequest createUserRequest) {
-        log.info("Creating a new user with details: " + createUserRequest);
+        log.debug("Creating a new user");
         userService.createUser(createUserRequest);
-        log.info("User created successfully.");
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .build();
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkUserResponse> bulkCreateUsers(InputStream body) throws IOException {
+        log.debug("Bulk creating users");
+        try (MappingIterator<CreateUserRequest> requests = objectMapper.readerFor(CreateUserRequest.class).readValues(body)) {
+            var records = new BulkRequestIterator<>(requests);
+            var response = userService.bulkCreateUsers(records);
+            log.infof("Bulk create processed %d records, %d rejected.", response.getTotal(), response.getFailed());
+
+            return bulkResponse(response, records);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<UserDto> findUserById(@PathVariable("id") Long id) {
+        log.debugf("Finding user with ID: %d", id);
+        var user = userService.findUserById(id);
+
+        return ResponseEntity.ok()
+                .eTag(UserETags.toETag(user.getVersion()))
+                .body(user);
+    }
+
+    /**
+     * Without {@code If-Match} the update is unconditional. With it, the update only applies if the user still has
+     * the version named by the ETag; otherwise the response is 412 and the client should reload and retry.
+     */
     @PutMapping
-    public ResponseEntity<Void> updateUser(@Valid @RequestBody UpdateUserRequest updateUserRequest) {
-        log.info("Updating user with details: " + updateUserRequest);
-        userService.updateUser(updateUserRequest);
-        log.info("User updated successfully.");
+    public ResponseEntity<Void> updateUser(@Valid @RequestBody UpdateUserRequest updateUserRequest,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debugf("Updating user with ID: %d", updateUserRequest.getId());
+        var newVersion = userService.updateUser(updateUserRequest, UserETags.parseETag(ifMatch));
 
-        return ResponseEntity.status(HttpStatus.OK)
-                .build();
+        var response = ResponseEntity.status(HttpStatus.OK);
+        if (newVersion != null) {
+            response.eTag(UserETags.toETag(newVersion));
+        }
+        return response.build();
+    }
+
+    @PatchMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkUserResponse> bulkUpdateUsers(InputStream body) throws IOException {
+        log.debug("Bulk updating users");
+        try (MappingIterator<UpdateUserRequest> requests = objectMapper.readerFor(UpdateUserRequest.class).readValues(body)) {
+            var records = new BulkRequestIterator<>(requests);
+            var response = userService.bulkUpdateUsers(records);
+            log.infof("Bulk update processed %d records, %d rejected.", response.getTotal(), response.getFailed());
+
+            return bulkResponse(response, records);
+        }
+    }
+
+    @DeleteMapping
+    public ResponseEntity<BulkUserResponse> bulkDeleteUsers(@RequestBody List<Long> ids) {
+        log.debugf("Bulk deleting %d users", ids.size());
+        var response = userService.bulkDeleteUsers(ids);
+        log.infof("Bulk delete processed %d ids, %d rejected.", response.getTotal(), response.getFailed());
+
+        return ResponseEntity.ok(response);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUserById(@PathVariable("id") Long id) {
-        log.info("Attempting to delete user with ID: " + id);
+        log.debugf("Attempting to delete user with ID: %d", id);
         userService.deleteUserById(id);
-        log.info("User deleted successfully with ID: " + id);
 
         return ResponseEntity.status(HttpStatus.OK)
                 .build();
@@ -63,12 +141,164 @@ public class UserController {
     @GetMapping("/list/by-birth-date-range")
     public ResponseEntity<AllUserByDateRangeResponse> findUsersByBirthDateRange(
             @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size
     ) {
-        log.info("Searching for users born between " + from + " and " + to);
-        var users = userService.findUsersByBirthDateRange(from, to);
-        log.info("Found " + users.getUsers().size() + " users born in the specified date range.");
+        log.debugf("Searching for users born between %s and %s", from, to);
+        var users = rangeQueryCoalescer.coalesce(new RangeQueryCoalescer.RangeQuery(from, to, cursor, size),
+                () -> cursor == null && size == null
+                        ? userService.findUsersByBirthDateRange(from, to)
+                        : userService.findUsersByBirthDateRange(from, to, cursor, size));
 
         return ResponseEntity.ok(users);
     }
+
+    /**
+     * Keyset-paginated feed of users written or deleted after {@code since}; without it, from the start.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<UserChangesResponse> findChanges(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        log.debug("Reading user changes");
+        return ResponseEntity.ok(userChangeService.findChangesSince(since, size));
+    }
+
+    /**
+     * Server-Sent-Events stream of change events, one SSE event per published batch. A reconnecting client resumes
+     * from its {@code Last-Event-ID}, and {@code after} does the same for a first connection; without either, only
+     * events published from now on are sent.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(value = "after", required = false) Long after
+    ) {
+        log.debug("Subscribing to user change events");
+        var emitter = new SseEmitter();
+        userEventStream.subscribe(emitter, lastEventId != null ? lastEventId : after);
+        return emitter;
+    }
+
+    @GetMapping("/stats/by-birth-date-range")
+    public ResponseEntity<BirthDateStatsResponse> getBirthDateStats(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "groupBy", defaultValue = "YEAR") BirthDateGrouping groupBy,
+            @RequestParam(value = "bandWidth", defaultValue = "10") int bandWidth
+    ) {
+        log.debugf("Counting users born between %s and %s by %s", from, to, groupBy);
+        return ResponseEntity.ok(userService.getBirthDateStats(from, to, groupBy, bandWidth));
+    }
+
+    @GetMapping(value = "/stream/by-birth-date-range", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsersByBirthDateRange(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debugf("Streaming users born between %s and %s", from, to);
+        userService.validateDateRange(from, to);
+
+        StreamingResponseBody body = outputStream -> {
+            try (var generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                userService.streamUsersByBirthDateRange(from, to, user -> {
+                    try {
+                        generator.writeObject(user);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Earlier chunks are committed by the time the payload stops parsing, so the client gets the report of what was
+     * applied along with the parse error. Only a payload that broke before its first record is a plain 400.
+     */
+    private static ResponseEntity<BulkUserResponse> bulkResponse(BulkUserResponse response,
+                                                                 BulkRequestIterator<?> records)
+            throws BadRequestException {
+        var payloadError = records.getPayloadError();
+        if (payloadError == null) {
+            return ResponseEntity.ok(response);
+        }
+        var message = "Malformed bulk payload: " + payloadError.getOriginalMessage();
+        if (response.getTotal() == 0) {
+            throw new BadRequestException(message);
+        }
+        log.infof("Bulk payload stopped parsing after %d records: %s", response.getTotal(),
+                payloadError.getOriginalMessage());
+        response.setPayloadError(message);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Reads a JSON array or NDJSON sequence record by record. Records that parse as JSON but cannot be
+     * bound to the request type are handed on as {@code null} so they are reported per row. Malformed JSON ends
+     * the sequence; the records before it are still handed on, and the error is kept for the response.
+     */
+    private static final class BulkRequestIterator<T> implements Iterator<T> {
+
+        private final MappingIterator<T> delegate;
+        private T nextRecord;
+        private boolean fetched;
+        private boolean exhausted;
+        private JsonParseException payloadError;
+
+        private BulkRequestIterator(MappingIterator<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                fetch();
+            }
+            return !exhausted;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            fetched = false;
+            return nextRecord;
+        }
+
+        private JsonParseException getPayloadError() {
+            return payloadError;
+        }
+
+        /**
+         * Reads the whole next record ahead, so a record cut off partway fails here rather than in {@link #next}.
+         */
+        private void fetch() {
+            fetched = true;
+            try {
+                if (!delegate.hasNextValue()) {
+                    exhausted = true;
+                    return;
+                }
+                nextRecord = delegate.nextValue();
+            } catch (JsonParseException e) {
+                payloadError = e;
+                exhausted = true;
+            } catch (JsonMappingException e) {
+                nextRecord = null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
 }
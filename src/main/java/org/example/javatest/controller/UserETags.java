@@ -0,0 +1,34 @@
+package org.example.javatest.controller;
+
+import org.example.javatest.exception.UserVersionConflictException;
+
+/**
+ * Strong ETags carrying the user's version, shared by the servlet and reactive controllers.
+ */
+public final class UserETags {
+
+    private UserETags() {
+    }
+
+    public static String toETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the version named by a single strong ETag, or {@code null} for no header or {@code *}.
+     */
+    public static Long parseETag(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        var etag = ifMatch.trim();
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            try {
+                return Long.parseLong(etag.substring(1, etag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through: an ETag this service never issued cannot match
+            }
+        }
+        throw new UserVersionConflictException("If-Match does not name a current version of this user: " + ifMatch);
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.javatest.converter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes {@link AllUserByDateRangeResponse} as one JSON array per {@link UserDto} field instead of one object per
+ * user, so field names appear once per response rather than once per row. Write-only.
+ */
+public class ColumnarUserResponseHttpMessageConverter extends AbstractHttpMessageConverter<AllUserByDateRangeResponse> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.users.columnar+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private final JsonFactory jsonFactory;
+
+    public ColumnarUserResponseHttpMessageConverter(JsonFactory jsonFactory) {
+        super(MEDIA_TYPE);
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return AllUserByDateRangeResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(@NonNull Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected AllUserByDateRangeResponse readInternal(@NonNull Class<? extends AllUserByDateRangeResponse> clazz,
+                                                      @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar user responses are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(AllUserByDateRangeResponse response, HttpOutputMessage outputMessage) throws IOException {
+        List<UserDto> users = response.getUsers() == null ? List.of() : response.getUsers();
+        try (var generator = jsonFactory.createGenerator(outputMessage.getBody())) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeNumberField("count", users.size());
+            writeNumberColumn(generator, "id", users, UserDto::getId);
+            writeColumn(generator, "email", users, UserDto::getEmail);
+            writeColumn(generator, "firstName", users, UserDto::getFirstName);
+            writeColumn(generator, "lastName", users, UserDto::getLastName);
+            writeColumn(generator, "birthDate", users,
+                    user -> user.getBirthDate() == null ? null : user.getBirthDate().toString());
+            writeColumn(generator, "address", users, UserDto::getAddress);
+            writeColumn(generator, "phoneNumber", users, UserDto::getPhoneNumber);
+            writeNumberColumn(generator, "version", users, UserDto::getVersion);
+            if (response.getNextCursor() != null) {
+                generator.writeStringField("nextCursor", response.getNextCursor());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeNumberColumn(JsonGenerator generator, String name, List<UserDto> users,
+                                          Function<UserDto, Long> column) throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (var user : users) {
+            var value = column.apply(user);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(value);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeColumn(JsonGenerator generator, String name, List<UserDto> users,
+                                    Function<UserDto, String> column) throws IOException {
+        generator.writeArrayFieldStart(name);
+        for (var user : users) {
+            generator.writeString(column.apply(user));
+        }
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.javatest.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets read-only work that cannot tolerate replication lag opt out of the replica. Has no effect when read
+ * routing is disabled.
+ */
+public final class DataSourceRoute {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private DataSourceRoute() {
+    }
+
+    /**
+     * Runs {@code work} with every connection obtained on this thread coming from the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        var previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+
+    public static void onPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.javatest.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.Map;
+
+/**
+ * Sets the maximum size of every Hikari pool before it starts. A size configured for the pool's name wins;
+ * otherwise it follows HikariCP's {@code cores * 2 + effective spindles} rule for the database server, capped by the
+ * expected number of concurrent requests, since connections beyond that would only sit idle.
+ */
+@JBossLog
+@RequiredArgsConstructor
+public class HikariPoolSizer implements BeanPostProcessor {
+
+    private final int databaseCores;
+    private final int effectiveSpindles;
+    private final int expectedConcurrency;
+    private final Map<String, Integer> configuredSizes;
+
+    public static int recommendedSize(int databaseCores, int effectiveSpindles, int expectedConcurrency) {
+        int size = Math.max(1, databaseCores) * 2 + Math.max(0, effectiveSpindles);
+        return expectedConcurrency > 0 ? Math.min(size, expectedConcurrency) : size;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource pool) || pool.getMaximumPoolSize() >= 1) {
+            return bean;
+        }
+        int configured = configuredSizes.getOrDefault(pool.getPoolName(), 0);
+        if (configured > 0) {
+            pool.setMaximumPoolSize(configured);
+            log.infof("Pool %s sized to %d connections as configured", pool.getPoolName(), configured);
+        } else {
+            int size = recommendedSize(databaseCores, effectiveSpindles, expectedConcurrency);
+            pool.setMaximumPoolSize(size);
+            log.infof("Pool %s sized to %d connections (database cores %d, spindles %d, expected concurrency %d)",
+                    pool.getPoolName(), size, databaseCores, effectiveSpindles, expectedConcurrency);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.javatest.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Tracks, for the client whose request the current thread is handling, whether it has written recently enough that
+ * its reads must see the primary. Set up per request by {@link ReadYourWritesFilter}; a thread outside a request
+ * belongs to no client and never counts as having written.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Client> CLIENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Starts tracking the current client. {@code onWrite} gets the wall-clock time, in epoch milliseconds, of every
+     * read-write transaction it commits.
+     */
+    public static void begin(boolean recentlyWritten, LongConsumer onWrite) {
+        CLIENT.set(new Client(recentlyWritten, onWrite));
+    }
+
+    public static void end() {
+        CLIENT.remove();
+    }
+
+    /**
+     * Whether the current client committed a write within the read-your-writes window, before or during this
+     * request.
+     */
+    public static boolean isPending() {
+        var client = CLIENT.get();
+        return client != null && client.written;
+    }
+
+    static void recordWriteOnCommit() {
+        var client = CLIENT.get();
+        if (client == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                client.written = true;
+                client.onWrite.accept(System.currentTimeMillis());
+            }
+        });
+    }
+
+    private static final class Client {
+
+        private final LongConsumer onWrite;
+        private boolean written;
+
+        private Client(boolean written, LongConsumer onWrite) {
+            this.written = written;
+            this.onWrite = onWrite;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.javatest.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+
+/**
+ * Gives each client its own read-your-writes window. A request that commits a write gets a cookie holding the
+ * commit time; requests that send it back within {@code window} read from the primary. The time is the server's
+ * wall clock, so any instance behind a load balancer honours it, give or take clock skew.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "last-write";
+
+    private final long windowMillis;
+    private final Duration cookieMaxAge;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.windowMillis = window.toMillis();
+        this.cookieMaxAge = Duration.ofSeconds((windowMillis + 999) / 1000);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (windowMillis <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        var lastWriteResponse = new LastWriteCookieResponse(response);
+        ReadYourWrites.begin(isRecent(lastWrite(request)), lastWriteResponse::recordWrite);
+        try {
+            filterChain.doFilter(request, lastWriteResponse);
+        } finally {
+            ReadYourWrites.end();
+            lastWriteResponse.addLastWriteCookie();
+        }
+    }
+
+    private boolean isRecent(long lastWrite) {
+        return lastWrite > 0 && System.currentTimeMillis() - lastWrite < windowMillis;
+    }
+
+    private static long lastWrite(HttpServletRequest request) {
+        var cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Adds the cookie once, with the request's last commit, just before the response starts to be written. A bulk
+     * request that commits many chunks therefore sends one cookie, and other cookies on the response are kept.
+     */
+    private final class LastWriteCookieResponse extends HttpServletResponseWrapper {
+
+        private long lastWrite;
+        private boolean cookieAdded;
+
+        private LastWriteCookieResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        private void recordWrite(long committedAt) {
+            lastWrite = committedAt;
+        }
+
+        private void addLastWriteCookie() {
+            if (lastWrite == 0 || cookieAdded || isCommitted()) {
+                return;
+            }
+            cookieAdded = true;
+            addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(lastWrite))
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .maxAge(cookieMaxAge)
+                    .build()
+                    .toString());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addLastWriteCookie();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addLastWriteCookie();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addLastWriteCookie();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addLastWriteCookie();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addLastWriteCookie();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addLastWriteCookie();
+            super.sendRedirect(location);
+        }
+    }
+}
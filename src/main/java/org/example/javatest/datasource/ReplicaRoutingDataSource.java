@@ -0,0 +1,72 @@
+package org.example.javatest.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * Reads of a client that has just written stay on the primary, so it does not read a replica that is still behind;
+ * {@link ReadYourWritesFilter} decides per request which clients that is. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction's read-only flag is
+ * only known after the transaction manager has asked for a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String ROUTE_COUNTER = "user.datasource.routes";
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final Counter primaryWrites;
+    private final Counter pinnedReads;
+    private final Counter recentWriteReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryWrites = routeCounter(meterRegistry, Route.PRIMARY, "write");
+        this.pinnedReads = routeCounter(meterRegistry, Route.PRIMARY, "pinned");
+        this.recentWriteReads = routeCounter(meterRegistry, Route.PRIMARY, "recent_write");
+        this.replicaReads = routeCounter(meterRegistry, Route.REPLICA, "read_only");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.increment();
+            ReadYourWrites.recordWriteOnCommit();
+            return Route.PRIMARY;
+        }
+        if (DataSourceRoute.isPrimaryRequired()) {
+            pinnedReads.increment();
+            return Route.PRIMARY;
+        }
+        if (ReadYourWrites.isPending()) {
+            recentWriteReads.increment();
+            return Route.PRIMARY;
+        }
+        replicaReads.increment();
+        return Route.REPLICA;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, Route route, String reason) {
+        return Counter.builder(ROUTE_COUNTER)
+                .description("Connections handed out per target database")
+                .tag("route", route.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
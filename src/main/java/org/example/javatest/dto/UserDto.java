@@ -26,4 +26,11 @@ public class UserDto {
     private String address;
 
     private String phoneNumber;
+
+    private Long version;
+
+    public UserDto(Long id, String email, String firstName, String lastName, LocalDate birthDate,
+                   String address, String phoneNumber) {
+        this(id, email, firstName, lastName, birthDate, address, phoneNumber, null);
+    }
 }
@@ -0,0 +1,10 @@
+package org.example.javatest.dto.request;
+
+/**
+ * Bucket granularity for birth-date statistics.
+ */
+public enum BirthDateGrouping {
+    YEAR,
+    MONTH,
+    AGE_BAND
+}
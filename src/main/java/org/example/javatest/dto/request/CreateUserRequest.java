@@ -2,6 +2,7 @@ package org.example.javatest.dto.request;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -16,21 +17,26 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @ToString
-public class CreateUserRequest {
+public class CreateUserRequest implements UserRequest {
 
     @CustomEmail(message = "Invalid email")
+    @Size(max = 255, message = "Email must be at most 255 characters")
     private String email;
 
     @NotBlank(message = "First name cannot be empty")
+    @Size(max = 255, message = "First name must be at most 255 characters")
     private String firstName;
 
     @NotBlank(message = "Last name cannot be empty")
+    @Size(max = 255, message = "Last name must be at most 255 characters")
     private String lastName;
 
     @Past(message = "Birth date must be in the past")
     private LocalDate birthDate;
 
+    @Size(max = 255, message = "Address must be at most 255 characters")
     private String address;
 
+    @Size(max = 255, message = "Phone number must be at most 255 characters")
     private String phoneNumber;
 }
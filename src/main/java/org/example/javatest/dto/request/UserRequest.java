@@ -0,0 +1,11 @@
+package org.example.javatest.dto.request;
+
+import java.time.LocalDate;
+
+/**
+ * What create and update requests have in common, for checks that apply to both.
+ */
+public interface UserRequest {
+
+    LocalDate getBirthDate();
+}
@@ -1,5 +1,6 @@
 package org.example.javatest.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -17,4 +18,11 @@ import java.util.List;
 public class AllUserByDateRangeResponse {
 
     private List<UserDto> users;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    public AllUserByDateRangeResponse(List<UserDto> users) {
+        this.users = users;
+    }
 }
@@ -0,0 +1,17 @@
+package org.example.javatest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BirthDateBucket {
+
+    private String key;
+
+    private long count;
+}
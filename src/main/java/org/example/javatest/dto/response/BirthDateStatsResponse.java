@@ -0,0 +1,33 @@
+package org.example.javatest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.javatest.dto.request.BirthDateGrouping;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BirthDateStatsResponse {
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private BirthDateGrouping groupBy;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer bandWidth;
+
+    private long total;
+
+    private List<BirthDateBucket> buckets;
+}
@@ -0,0 +1,11 @@
+package org.example.javatest.dto.response;
+
+public enum BulkItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    INVALID,
+    DUPLICATE,
+    NOT_FOUND,
+    FAILED
+}
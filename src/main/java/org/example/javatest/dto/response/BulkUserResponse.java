@@ -0,0 +1,37 @@
+package org.example.javatest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserResponse {
+
+    private int total;
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<BulkUserResult> results;
+
+    /**
+     * Set when the payload stopped parsing partway through. Every record before that point was processed and is
+     * in {@code results}; nothing after it was read.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String payloadError;
+
+    public BulkUserResponse(int total, int succeeded, int failed, List<BulkUserResult> results) {
+        this(total, succeeded, failed, results, null);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.javatest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkUserResult {
+
+    private int index;
+
+    private Long id;
+
+    private String email;
+
+    private BulkItemStatus status;
+
+    private String message;
+
+    public BulkUserResult(int index, String email, BulkItemStatus status, String message) {
+        this(index, null, email, status, message);
+    }
+}
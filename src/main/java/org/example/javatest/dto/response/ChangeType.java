@@ -0,0 +1,6 @@
+package org.example.javatest.dto.response;
+
+public enum ChangeType {
+    UPSERTED,
+    DELETED
+}
@@ -0,0 +1,27 @@
+package org.example.javatest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.javatest.dto.UserDto;
+
+/**
+ * One entry of the changes feed: the user as it is now, or only its id once it has been deleted.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChange {
+
+    private ChangeType type;
+
+    private Long id;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UserDto user;
+}
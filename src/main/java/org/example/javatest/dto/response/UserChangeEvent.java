@@ -0,0 +1,31 @@
+package org.example.javatest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A compact change event from the outbox: what happened to which user, not the user itself. {@code offset} is
+ * the outbox id and increases with every event; {@code version} is absent for deletions.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeEvent {
+
+    private Long offset;
+
+    private UserEventType type;
+
+    private Long userId;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    private LocalDateTime occurredAt;
+}
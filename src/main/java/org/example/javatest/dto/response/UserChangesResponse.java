@@ -0,0 +1,23 @@
+package org.example.javatest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangesResponse {
+
+    private List<UserChange> changes;
+
+    private String nextToken;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,7 @@
+package org.example.javatest.dto.response;
+
+public enum UserEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
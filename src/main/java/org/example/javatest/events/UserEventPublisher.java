@@ -0,0 +1,104 @@
+package org.example.javatest.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.jbosslog.JBossLog;
+import org.example.javatest.datasource.DataSourceRoute;
+import org.example.javatest.dto.response.UserChangeEvent;
+import org.example.javatest.repository.UserOutboxRepository;
+import org.example.javatest.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Drains the outbox in batches into {@link UserEventStream}. Every instance publishes the whole outbox to its own
+ * subscribers; nothing is claimed or marked, so instances need no coordination.
+ * <p>
+ * An outbox id is assigned when its row is inserted, but the row only becomes visible when its transaction
+ * commits, so a later id can be seen before an earlier one. Each batch is therefore cut at the first event younger
+ * than {@code settleTime}, which must exceed the longest write transaction. Events are removed after
+ * {@code retention}; subscribers that resume from an older offset are told to resync.
+ */
+@JBossLog
+@Component
+public class UserEventPublisher {
+
+    private final UserOutboxRepository outboxRepository;
+    private final UserRepository userRepository;
+    private final UserEventStream eventStream;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transaction;
+    private final Duration settleTime;
+    private final Duration retention;
+    private final int batchSize;
+    private final Counter purgedEvents;
+
+    public UserEventPublisher(UserOutboxRepository outboxRepository,
+                              UserRepository userRepository,
+                              UserEventStream eventStream,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${user.events.settle-time:1s}") Duration settleTime,
+                              @Value("${user.events.retention:1d}") Duration retention,
+                              @Value("${user.events.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.userRepository = userRepository;
+        this.eventStream = eventStream;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.settleTime = settleTime;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.purgedEvents = Counter.builder("user.events.outbox.purged")
+                .description("Outbox events removed after the retention period")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes settled events batch by batch until a batch comes back short.
+     */
+    @Scheduled(fixedDelayString = "${user.events.poll-interval:PT0.2S}")
+    public void publish() {
+        List<UserChangeEvent> batch;
+        do {
+            long after = eventStream.position();
+            // The replica may not have a committed event yet; skipping over it would lose it.
+            batch = DataSourceRoute.onPrimary(() -> readOnlyTransaction.execute(status -> readSettled(after)));
+            eventStream.broadcast(batch);
+            if (!batch.isEmpty()) {
+                log.debugf("Published %d user change events up to offset %d", batch.size(),
+                        batch.get(batch.size() - 1).getOffset());
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(initialDelayString = "${user.events.purge-interval:PT1H}",
+            fixedDelayString = "${user.events.purge-interval:PT1H}")
+    public void purgeOutbox() {
+        int purged = transaction.execute(status -> outboxRepository.deleteCreatedBefore(
+                userRepository.currentTimestamp().minus(retention)));
+        purgedEvents.increment(purged);
+        log.infof("Purged %d outbox events", purged);
+    }
+
+    private List<UserChangeEvent> readSettled(long after) {
+        var events = outboxRepository.findAfter(after, PageRequest.ofSize(batchSize));
+        if (events.isEmpty()) {
+            return events;
+        }
+        var horizon = userRepository.currentTimestamp().minus(settleTime);
+        int settled = 0;
+        while (settled < events.size() && !events.get(settled).getOccurredAt().isAfter(horizon)) {
+            settled++;
+        }
+        return events.subList(0, settled);
+    }
+}
@@ -0,0 +1,263 @@
+package org.example.javatest.events;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.jbosslog.JBossLog;
+import org.example.javatest.datasource.DataSourceRoute;
+import org.example.javatest.dto.response.UserChangeEvent;
+import org.example.javatest.exception.ChangeTokenExpiredException;
+import org.example.javatest.exception.EventSubscriberLimitException;
+import org.example.javatest.exception.InvalidPageRequestException;
+import org.example.javatest.repository.UserOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fans published change events out to Server-Sent-Events subscribers, one SSE event per published batch with the
+ * offset of its last change event as the SSE id.
+ * <p>
+ * Every subscriber has its own sender thread, a virtual one when {@code spring.threads.virtual.enabled} is set on
+ * Java 21, and a buffer of at most {@code bufferSize} batches, so publishing only
+ * offers to buffers and never waits for a client. A subscriber whose buffer is full is evicted and its stream is
+ * closed; it reconnects with its last event id and reads what it missed from the outbox instead of from memory. A
+ * subscriber that resumes from an offset first reads the outbox up to the position published when it registered,
+ * then the batches published since.
+ */
+@JBossLog
+@Component
+public class UserEventStream implements MeterBinder {
+
+    public static final String EVENT_NAME = "changes";
+
+    private static final Duration SENDER_TERMINATION_TIMEOUT = Duration.ofSeconds(1);
+
+    private final UserOutboxRepository outboxRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int bufferSize;
+    private final int batchSize;
+    private final int maxSubscribers;
+    private final Duration heartbeatInterval;
+    private final SimpleAsyncTaskExecutor senders;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Not a monitor: position() may query the outbox while holding it, which would pin a virtual thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    private long position = -1;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public UserEventStream(UserOutboxRepository outboxRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${user.events.buffer-size:64}") int bufferSize,
+                           @Value("${user.events.batch-size:500}") int batchSize,
+                           @Value("${user.events.max-subscribers:256}") int maxSubscribers,
+                           @Value("${user.events.heartbeat-interval:15s}") Duration heartbeatInterval,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled) {
+        this.outboxRepository = outboxRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatInterval = heartbeatInterval;
+        this.senders = new SimpleAsyncTaskExecutor("user-events-");
+        this.senders.setDaemon(true);
+        this.senders.setVirtualThreads(virtualThreadsEnabled
+                && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE));
+        // Makes close() interrupt senders blocked waiting for their next batch.
+        this.senders.setTaskTerminationTimeout(SENDER_TERMINATION_TIMEOUT.toMillis());
+    }
+
+    /**
+     * Offset of the last published event. Until the first batch is published it is the last offset in the outbox,
+     * so a restarted instance does not replay history to subscribers that did not ask for it.
+     */
+    public long position() {
+        lock.lock();
+        try {
+            if (position < 0) {
+                var last = readOutbox(outboxRepository::findLastOffset);
+                position = last == null ? 0 : last;
+            }
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Streams every event after {@code after} to {@code emitter}, or only the ones published from now on without
+     * it.
+     */
+    public void subscribe(SseEmitter emitter, Long after) {
+        if (after != null) {
+            checkRetained(after);
+        }
+        Subscriber subscriber;
+        lock.lock();
+        try {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new EventSubscriberLimitException("Too many event stream subscribers; retry later.");
+            }
+            long current = position();
+            subscriber = new Subscriber(emitter, after == null ? current : after, current);
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        senders.execute(subscriber);
+        log.debugf("Event subscriber joined after offset %d, %d subscribers", subscriber.lastSent, subscribers.size());
+    }
+
+    /**
+     * Offers {@code batch} to every subscriber without blocking and evicts the ones whose buffer is full.
+     * Batches must be passed in offset order.
+     */
+    public void broadcast(List<UserChangeEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (var subscriber : subscribers) {
+                if (!subscriber.buffer.offer(batch)) {
+                    subscribers.remove(subscriber);
+                    subscriber.close();
+                    evicted.increment();
+                    log.infof("Evicted a slow event subscriber at offset %d", subscriber.lastSent);
+                }
+            }
+            position = batch.get(batch.size() - 1).getOffset();
+        } finally {
+            lock.unlock();
+        }
+        published.add(batch.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        senders.close();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("user.events.published", published, LongAdder::sum)
+                .description("Change events handed to event stream subscribers")
+                .register(registry);
+        FunctionCounter.builder("user.events.evicted", evicted, LongAdder::sum)
+                .description("Event stream subscribers closed because their buffer was full")
+                .register(registry);
+        Gauge.builder("user.events.subscribers", subscribers, Set::size)
+                .description("Connected event stream subscribers")
+                .register(registry);
+    }
+
+    private void checkRetained(long after) {
+        if (after < 0) {
+            throw new InvalidPageRequestException("Event offset must not be negative.");
+        }
+        var first = readOutbox(outboxRepository::findFirstOffset);
+        if (first != null && after < first - 1) {
+            throw new ChangeTokenExpiredException("Event offset has expired; sync again from /users/changes.");
+        }
+    }
+
+    private <T> T readOutbox(Supplier<T> query) {
+        return DataSourceRoute.onPrimary(() -> readOnlyTransaction.execute(status -> query.get()));
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<List<UserChangeEvent>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final long catchUpThrough;
+        private volatile long lastSent;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, long after, long catchUpThrough) {
+            this.emitter = emitter;
+            this.lastSent = after;
+            this.catchUpThrough = catchUpThrough;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed && lastSent < catchUpThrough) {
+                    var events = readOutbox(() -> outboxRepository.findBetween(lastSent, catchUpThrough,
+                            PageRequest.ofSize(batchSize)));
+                    if (events.isEmpty()) {
+                        break;
+                    }
+                    send(events);
+                }
+                while (!closed) {
+                    var batch = buffer.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (closed) {
+                        break;
+                    }
+                    if (batch == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        send(batch);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debugf("Event subscriber disconnected at offset %d: %s", lastSent, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                subscribers.remove(this);
+                emitter.complete();
+            }
+        }
+
+        private void send(List<UserChangeEvent> batch) throws IOException {
+            long after = lastSent;
+            var events = batch.get(0).getOffset() > after
+                    ? batch
+                    : batch.stream().filter(event -> event.getOffset() > after).toList();
+            if (events.isEmpty()) {
+                return;
+            }
+            long last = events.get(events.size() - 1).getOffset();
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(last))
+                    .name(EVENT_NAME)
+                    .data(events, MediaType.APPLICATION_JSON));
+            lastSent = last;
+        }
+
+        private void close() {
+            closed = true;
+            buffer.clear();
+        }
+    }
+}
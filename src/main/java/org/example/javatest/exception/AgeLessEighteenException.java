@@ -1,6 +1,6 @@
 package org.example.javatest.exception;
 
-public class AgeLessEighteenException extends RuntimeException {
+public class AgeLessEighteenException extends BusinessException {
 
     public AgeLessEighteenException(String message) {
         super(message);
@@ -0,0 +1,12 @@
+package org.example.javatest.exception;
+
+/**
+ * Base class for expected domain errors: the ones a client causes and gets a 4xx for. They are created only to be
+ * turned into a response, so no stack trace is captured and suppression is disabled.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    protected BusinessException(String message) {
+        super(message, null, false, false);
+    }
+}
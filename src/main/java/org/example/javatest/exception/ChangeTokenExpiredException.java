@@ -0,0 +1,8 @@
+package org.example.javatest.exception;
+
+public class ChangeTokenExpiredException extends BusinessException {
+
+    public ChangeTokenExpiredException(String message) {
+        super(message);
+    }
+}
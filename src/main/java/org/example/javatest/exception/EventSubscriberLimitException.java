@@ -0,0 +1,8 @@
+package org.example.javatest.exception;
+
+public class EventSubscriberLimitException extends BusinessException {
+
+    public EventSubscriberLimitException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,6 @@
 package org.example.javatest.exception;
 
-public class InvalidDateRangeException extends RuntimeException {
+public class InvalidDateRangeException extends BusinessException {
 
     public InvalidDateRangeException(String message) {
         super(message);
@@ -0,0 +1,8 @@
+package org.example.javatest.exception;
+
+public class InvalidPageRequestException extends BusinessException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
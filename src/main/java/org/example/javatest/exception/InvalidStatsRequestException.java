@@ -0,0 +1,8 @@
+package org.example.javatest.exception;
+
+public class InvalidStatsRequestException extends BusinessException {
+
+    public InvalidStatsRequestException(String message) {
+        super(message);
+    }
+}
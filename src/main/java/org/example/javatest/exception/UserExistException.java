@@ -1,6 +1,6 @@
 package org.example.javatest.exception;
 
-public class UserExistException extends RuntimeException {
+public class UserExistException extends BusinessException {
 
     public UserExistException(String message) {
         super(message);
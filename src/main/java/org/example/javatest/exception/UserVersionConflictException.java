@@ -0,0 +1,8 @@
+package org.example.javatest.exception;
+
+public class UserVersionConflictException extends BusinessException {
+
+    public UserVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.javatest.exhandler;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.example.javatest.dto.error.ApiError;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the JSON form of {@link ApiError} straight to bytes, without the builder or Jackson's object serializer.
+ * The part that only depends on the status is encoded once per status. Field order and formats match what Jackson
+ * writes for {@link ApiError}.
+ */
+public final class ErrorBodyEncoder {
+
+    private static final Map<HttpStatus, byte[]> PREFIXES = new ConcurrentHashMap<>();
+    private static final byte[] MESSAGE = bytes("\"message\":");
+    private static final byte[] TIMESTAMP = bytes(",\"timestamp\":\"");
+    private static final byte[] PATH = bytes("\",\"path\":");
+    private static final byte[] NULL = bytes("null");
+
+    private ErrorBodyEncoder() {
+    }
+
+    public static byte[] encode(HttpStatus status, String message, String path, Instant timestamp) {
+        var out = new ByteArrayOutputStream(160 + (message == null ? 0 : message.length()) + path.length());
+        out.writeBytes(PREFIXES.computeIfAbsent(status,
+                s -> bytes("{\"status\":" + s.value() + ",\"error\":\"" + s.getReasonPhrase() + "\",")));
+        out.writeBytes(MESSAGE);
+        writeString(out, message);
+        out.writeBytes(TIMESTAMP);
+        out.writeBytes(bytes(timestamp.toString()));
+        out.writeBytes(PATH);
+        writeString(out, path);
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            out.writeBytes(NULL);
+            return;
+        }
+        out.write('"');
+        out.writeBytes(JsonStringEncoder.getInstance().quoteAsUTF8(value));
+        out.write('"');
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.javatest.exhandler;
+
+import lombok.extern.jbosslog.JBossLog;
+import org.example.javatest.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logging for {@link BusinessException}s. Each one is logged at {@code DEBUG}. At most once per interval and
+ * exception type, an {@code INFO} line reports how many occurred since the previous one. A storm of duplicate
+ * sign-ups or a 404 scan therefore costs a counter increment per request rather than a log line.
+ */
+@JBossLog
+@Component
+public class ExpectedErrorLog {
+
+    private final long intervalNanos;
+    private final ConcurrentMap<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+    public ExpectedErrorLog(@Value("${user.errors.log-interval:10s}") Duration interval) {
+        this.intervalNanos = interval.toNanos();
+    }
+
+    public void log(BusinessException ex, HttpStatus status, String path) {
+        if (log.isDebugEnabled()) {
+            log.debugf("%s (%d): %s Path: %s", ex.getClass().getSimpleName(), status.value(), ex.getMessage(), path);
+        }
+        var window = windows.computeIfAbsent(ex.getClass(), type -> new Window(System.nanoTime()));
+        window.count.increment();
+        long now = System.nanoTime();
+        long due = window.nextReportAt.get();
+        if (now - due >= 0 && window.nextReportAt.compareAndSet(due, now + intervalNanos)) {
+            log.infof("%d x %s (%d) in the last %s, latest: %s Path: %s", window.count.sumThenReset(),
+                    ex.getClass().getSimpleName(), status.value(), Duration.ofNanos(intervalNanos), ex.getMessage(),
+                    path);
+        }
+    }
+
+    private static final class Window {
+
+        private final AtomicLong nextReportAt;
+        private final LongAdder count = new LongAdder();
+
+        private Window(long now) {
+            this.nextReportAt = new AtomicLong(now);
+        }
+    }
+}
@@ -1,77 +1,151 @@
 package org.example.javatest.exhandler;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.jbosslog.JBossLog;
 import org.apache.coyote.BadRequestException;
 import org.example.javatest.dto.error.ApiError;
 import org.example.javatest.exception.AgeLessEighteenException;
+import org.example.javatest.exception.BusinessException;
+import org.example.javatest.exception.ChangeTokenExpiredException;
+import org.example.javatest.exception.EventSubscriberLimitException;
 import org.example.javatest.exception.InvalidDateRangeException;
+import org.example.javatest.exception.InvalidPageRequestException;
+import org.example.javatest.exception.InvalidStatsRequestException;
 import org.example.javatest.exception.UserExistException;
 import org.example.javatest.exception.UserNotFoundException;
+import org.example.javatest.exception.UserVersionConflictException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @JBossLog
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler extends GenericExceptionHandler {
 
-    private static final String PATH_LITERAL = " Path: ";
+    public static final String ERROR_COUNTER = "user.errors";
+
+    private final MeterRegistry meterRegistry;
+    private final ExpectedErrorLog expectedErrorLog;
+    private final Map<CounterKey, Counter> errorCounters = new ConcurrentHashMap<>();
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGlobalException(Exception ex, WebRequest request) {
-        log.error("Unhandled exception caught: " + ex.getMessage() + PATH_LITERAL + request.getDescription(false), ex);
+        log.errorf(ex, "Unhandled exception caught: %s Path: %s", ex.getMessage(), request.getDescription(false));
+        countError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         return this.buildRestResponse(HttpStatus.INTERNAL_SERVER_ERROR, this.errorBuilder(HttpStatus.INTERNAL_SERVER_ERROR,
                 "Sorry, we are unable to process your request right now. Please try again later", request).build());
     }
 
     @ExceptionHandler(AgeLessEighteenException.class)
-    public ResponseEntity<ApiError> handleAgeLessEighteenException(AgeLessEighteenException ex, WebRequest request) {
-        log.error("Age less eighteen exception caught: " + ex.getMessage() + PATH_LITERAL + request.getDescription(false), ex);
-        return this.buildRestResponse(HttpStatus.BAD_REQUEST, this.errorBuilder(HttpStatus.BAD_REQUEST,
-                ex.getMessage(), request).build());
+    public ResponseEntity<byte[]> handleAgeLessEighteenException(AgeLessEighteenException ex, WebRequest request) {
+        return handleBusinessException(ex, HttpStatus.BAD_REQUEST, request);
     }
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ApiError> handleConstraintViolationException(ConstraintViolationException ex, WebRequest request) {
-        log.error("Constraint exception caught: " + ex.getMessage() + PATH_LITERAL + request.getDescription(false), ex);
+        log.errorf(ex, "Constraint exception caught: %s Path: %s", ex.getMessage(), request.getDescription(false));
+        countError(ex, HttpStatus.BAD_REQUEST);
         return this.buildRestResponse(HttpStatus.BAD_REQUEST, this.errorBuilder(HttpStatus.BAD_REQUEST,
                 ex.getMessage(), request).build());
     }
 
     @ExceptionHandler(UserExistException.class)
-    public ResponseEntity<ApiError> handleUserExistException(UserExistException ex, WebRequest request) {
-        log.error("User exist exception caught: " + ex.getMessage() + PATH_LITERAL + request.getDescription(false), ex);
+    public ResponseEntity<byte[]> handleUserExistException(UserExistException ex, WebRequest request) {
+        return handleBusinessException(ex, HttpStatus.CONFLICT, request);
+    }
+
+    @ExceptionHandler(UserVersionConflictException.class)
+    public ResponseEntity<byte[]> handleUserVersionConflictException(UserVersionConflictException ex, WebRequest request) {
+        return handleBusinessException(ex, HttpStatus.PRECONDITION_FAILED, request);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrityViolationException(DataIntegrityViolationException ex, WebRequest request) {
+        log.errorf(ex, "Data integrity violation exception caught: %s Path: %s", ex.getMessage(), request.getDescription(false));
+        countError(ex, HttpStatus.CONFLICT);
         return this.buildRestResponse(HttpStatus.CONFLICT, this.errorBuilder(HttpStatus.CONFLICT,
-                ex.getMessage(), request).build());
+                "The request conflicts with the current state of the data. Please retry.", request).build());
     }
 
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<ApiError> handleUserNotFoundException(UserNotFoundException ex, WebRequest request) {
-        log.error("User not found exception caught: " + ex.getMessage() + PATH_LITERAL + request.getDescription(false), ex);
-        return this.buildRestResponse(HttpStatus.NOT_FOUND, this.errorBuilder(HttpStatus.NOT_FOUND,
-                ex.getMessage(), request).build());
+    public ResponseEntity<byte[]> handleUserNotFoundException(UserNotFoundException ex, WebRequest request) {
+        return handleBusinessException(ex, HttpStatus.NOT_FOUND, request);
     }
 
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ApiError> handleBadRequestException(BadRequestException ex, WebRequest request) {
-        log.error("Bad request exception caught: " + ex.getMessage() + PATH_LITERAL + request.getDescription(false), ex);
+        log.errorf(ex, "Bad request exception caught: %s Path: %s", ex.getMessage(), request.getDescription(false));
+        countError(ex, HttpStatus.BAD_REQUEST);
         return this.buildRestResponse(HttpStatus.BAD_REQUEST, this.errorBuilder(HttpStatus.BAD_REQUEST,
                 ex.getMessage(), request).build());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex, WebRequest request) {
-        log.error("Method argument not valid exception caught: " + ex.getMessage() + PATH_LITERAL + request.getDescription(false), ex);
+        log.errorf(ex, "Method argument not valid exception caught: %s Path: %s", ex.getMessage(), request.getDescription(false));
+        countError(ex, HttpStatus.BAD_REQUEST);
         return this.buildRestResponse(HttpStatus.BAD_REQUEST, this.errorBuilder(HttpStatus.BAD_REQUEST,
                 ex.getMessage(), request).build());
     }
     @ExceptionHandler(InvalidDateRangeException.class)
-    public ResponseEntity<ApiError> handleInvalidDateRangeException(InvalidDateRangeException ex, WebRequest request) {
-        log.error("Invalid date range exception exception caught: " + ex.getMessage() + PATH_LITERAL + request.getDescription(false), ex);
+    public ResponseEntity<byte[]> handleInvalidDateRangeException(InvalidDateRangeException ex, WebRequest request) {
+        return handleBusinessException(ex, HttpStatus.BAD_REQUEST, request);
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<byte[]> handleInvalidPageRequestException(InvalidPageRequestException ex, WebRequest request) {
+        return handleBusinessException(ex, HttpStatus.BAD_REQUEST, request);
+    }
+
+    @ExceptionHandler(InvalidStatsRequestException.class)
+    public ResponseEntity<byte[]> handleInvalidStatsRequestException(InvalidStatsRequestException ex, WebRequest request) {
+        return handleBusinessException(ex, HttpStatus.BAD_REQUEST, request);
+    }
+
+    @ExceptionHandler(ChangeTokenExpiredException.class)
+    public ResponseEntity<byte[]> handleChangeTokenExpiredException(ChangeTokenExpiredException ex, WebRequest request) {
+        return handleBusinessException(ex, HttpStatus.GONE, request);
+    }
+
+    @ExceptionHandler(EventSubscriberLimitException.class)
+    public ResponseEntity<byte[]> handleEventSubscriberLimitException(EventSubscriberLimitException ex, WebRequest request) {
+        return handleBusinessException(ex, HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiError> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex, WebRequest request) {
+        log.errorf(ex, "Method argument type mismatch exception caught: %s Path: %s", ex.getMessage(), request.getDescription(false));
+        countError(ex, HttpStatus.BAD_REQUEST);
         return this.buildRestResponse(HttpStatus.BAD_REQUEST, this.errorBuilder(HttpStatus.BAD_REQUEST,
-                ex.getMessage(), request).build());
+                "Invalid value for parameter '" + ex.getName() + "': " + ex.getValue(), request).build());
+    }
+
+    private ResponseEntity<byte[]> handleBusinessException(BusinessException ex, HttpStatus status, WebRequest request) {
+        var path = request.getDescription(false);
+        expectedErrorLog.log(ex, status, path);
+        countError(ex, status);
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBodyEncoder.encode(status, ex.getMessage(), path, Instant.now()));
+    }
+
+    private void countError(Exception ex, HttpStatus status) {
+        errorCounters.computeIfAbsent(new CounterKey(ex.getClass(), status), key -> meterRegistry.counter(ERROR_COUNTER,
+                "exception", key.type().getSimpleName(), "status", String.valueOf(key.status().value()))).increment();
+    }
+
+    private record CounterKey(Class<?> type, HttpStatus status) {
     }
 }
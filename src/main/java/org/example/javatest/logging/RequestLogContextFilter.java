@@ -0,0 +1,45 @@
+package org.example.javatest.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Puts the request method, path and caller-supplied request id into the MDC, so every log line written while
+ * handling the request carries them as separate fields instead of concatenating them into messages.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLogContextFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String METHOD = "http.method";
+    public static final String PATH = "http.path";
+    public static final String REQUEST_ID = "request.id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        MDC.put(METHOD, request.getMethod());
+        MDC.put(PATH, request.getRequestURI());
+        var requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId != null) {
+            MDC.put(REQUEST_ID, requestId);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(METHOD);
+            MDC.remove(PATH);
+            MDC.remove(REQUEST_ID);
+        }
+    }
+}
@@ -2,13 +2,25 @@ package org.example.javatest.mapper;
 
 import org.example.javatest.dto.UserDto;
 import org.example.javatest.dto.request.CreateUserRequest;
+import org.example.javatest.dto.request.UpdateUserRequest;
 import org.example.javatest.model.User;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface UserMapper {
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     User toEntity(CreateUserRequest createUserRequest);
+
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    User toEntity(UpdateUserRequest updateUserRequest);
+
     UserDto toUserDto(User user);
 }
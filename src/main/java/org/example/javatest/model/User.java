@@ -1,23 +1,35 @@
 package org.example.javatest.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_birth_date_id", columnList = "birth_date, id"),
+        @Index(name = "idx_users_updated_at_id", columnList = "updated_at, id")
+})
 public class User extends BasicEntity {
 
+    public static final String CACHE_REGION = "users";
+
     @Column(name = "email", nullable = false, unique = true)
     private String email;
 
@@ -35,4 +47,21 @@ public class User extends BasicEntity {
 
     @Column(name = "phone_number")
     private String phoneNumber;
+
+    /**
+     * Set by the database on insert; read-only here.
+     */
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Set by the database on insert and on every update, whichever path writes the row; read-only here.
+     */
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    public User(String email, String firstName, String lastName, LocalDate birthDate, String address,
+                String phoneNumber) {
+        this(email, firstName, lastName, birthDate, address, phoneNumber, null, null);
+    }
 }
@@ -0,0 +1,43 @@
+package org.example.javatest.pagination;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.example.javatest.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset pagination over {@code (birth_date, id)}.
+ * The token is the last row of the previous page, encoded as URL-safe Base64 of {@code "<birthDate>:<id>"}.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class BirthDateCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final LocalDate birthDate;
+    private final Long id;
+
+    public String encode() {
+        var raw = birthDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BirthDateCursor decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidPageRequestException("Malformed cursor.");
+            }
+            return new BirthDateCursor(LocalDate.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageRequestException("Malformed cursor.");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.javatest.pagination;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.example.javatest.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the changes feed: the change time and user id of the last change returned, ordered as
+ * {@code (changed_at, id)}. Encoded as URL-safe Base64 of {@code "<changedAt>/<id>"}.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class ChangeToken {
+
+    /**
+     * Before every change; where a consumer without a token starts.
+     */
+    public static final ChangeToken START = new ChangeToken(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private static final char SEPARATOR = '/';
+
+    private final LocalDateTime changedAt;
+    private final Long id;
+
+    public boolean isStart() {
+        return id.equals(START.id) && changedAt.equals(START.changedAt);
+    }
+
+    public String encode() {
+        var raw = changedAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeToken decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidPageRequestException("Malformed change token.");
+            }
+            return new ChangeToken(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageRequestException("Malformed change token.");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.javatest.repository;
+
+/**
+ * Users per birth month.
+ */
+public interface BirthMonthCount {
+
+    Integer getYear();
+
+    Integer getMonth();
+
+    Long getUsers();
+}
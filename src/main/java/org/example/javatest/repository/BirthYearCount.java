@@ -0,0 +1,14 @@
+package org.example.javatest.repository;
+
+/**
+ * Users per birth year. {@code beforeBirthday} counts those whose birthday has not yet come this year, which is
+ * enough to turn birth years into exact ages without reading single rows.
+ */
+public interface BirthYearCount {
+
+    Integer getYear();
+
+    Long getUsers();
+
+    Long getBeforeBirthday();
+}
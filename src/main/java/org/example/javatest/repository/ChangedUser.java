@@ -0,0 +1,28 @@
+package org.example.javatest.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A user row together with the time it was last written, for the changes feed.
+ */
+public interface ChangedUser {
+
+    Long getId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    LocalDate getBirthDate();
+
+    String getAddress();
+
+    String getPhoneNumber();
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,11 @@
+package org.example.javatest.repository;
+
+/**
+ * Closed projection used to check email ownership in bulk without loading whole users.
+ */
+public interface EmailOwner {
+
+    Long getId();
+
+    String getEmail();
+}
@@ -0,0 +1,42 @@
+package org.example.javatest.repository;
+
+import org.example.javatest.dto.response.UserEventType;
+import org.example.javatest.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserBatchRepository {
+
+    int[] insertAll(List<User> users);
+
+    int[] updateAll(List<User> users);
+
+    /**
+     * Records the deletion of each id for the changes feed; call it in the transaction that deletes them.
+     */
+    int[] insertTombstones(Collection<Long> ids);
+
+    /**
+     * Appends a change event to the outbox, with the user's version as this transaction sees it; call it in the
+     * transaction that makes the change.
+     */
+    int insertOutboxEvent(Long userId, UserEventType type);
+
+    /**
+     * {@link #insertOutboxEvent} for many users in one JDBC batch.
+     */
+    int[] insertOutboxEvents(Collection<Long> userIds, UserEventType type);
+
+    /**
+     * Appends a {@code CREATED} event for each user just inserted with one of {@code emails}, in one JDBC batch;
+     * {@link #insertAll} does not return the ids the database assigned.
+     */
+    int[] insertCreatedOutboxEvents(Collection<String> emails);
+
+    /**
+     * The database's current time, the clock that {@code updated_at} and {@code deleted_at} are set from.
+     */
+    LocalDateTime currentTimestamp();
+}
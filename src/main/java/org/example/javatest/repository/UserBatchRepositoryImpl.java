@@ -0,0 +1,131 @@
+package org.example.javatest.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.example.javatest.dto.response.UserEventType;
+import org.example.javatest.model.User;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plain JDBC batch writes. Hibernate disables insert batching for {@code IDENTITY} ids,
+ * so bulk paths go through {@link JdbcTemplate#batchUpdate} and let the database assign ids.
+ * <p>
+ * Hibernate never sees these statements, so each batch schedules the same cleanup Hibernate runs for its own bulk
+ * DML: the {@code User} second-level cache region is evicted and cached queries over {@code users} are invalidated
+ * when the surrounding transaction completes. Must run inside a transaction.
+ */
+@RequiredArgsConstructor
+public class UserBatchRepositoryImpl implements UserBatchRepository {
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users "
+            + "(email, first_name, last_name, birth_date, address, phone_number) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_USER_SQL = "UPDATE users SET "
+            + "email = ?, first_name = ?, last_name = ?, birth_date = ?, address = ?, phone_number = ?, "
+            + "version = version + 1 WHERE id = ?";
+    private static final String INSERT_TOMBSTONE_SQL = "INSERT INTO user_tombstones (user_id) VALUES (?)";
+    private static final String INSERT_OUTBOX_EVENT_SQL = "INSERT INTO user_outbox (user_id, type, version) "
+            + "VALUES (?, ?, (SELECT version FROM users WHERE id = ?))";
+    private static final String INSERT_CREATED_OUTBOX_EVENT_SQL = "INSERT INTO user_outbox (user_id, type, version) "
+            + "SELECT id, ?, version FROM users WHERE email = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public int[] insertAll(List<User> users) {
+        invalidateSecondLevelCache();
+        return jdbcTemplate.batchUpdate(INSERT_USER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setColumns(ps, users.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    @Override
+    public int[] updateAll(List<User> users) {
+        invalidateSecondLevelCache();
+        return jdbcTemplate.batchUpdate(UPDATE_USER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                var user = users.get(i);
+                setColumns(ps, user);
+                ps.setLong(7, user.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    /**
+     * Tombstones are not cached by Hibernate, so no cleanup is scheduled.
+     */
+    @Override
+    public int[] insertTombstones(Collection<Long> ids) {
+        var batch = new ArrayList<Object[]>(ids.size());
+        ids.forEach(id -> batch.add(new Object[]{id}));
+        return jdbcTemplate.batchUpdate(INSERT_TOMBSTONE_SQL, batch);
+    }
+
+    /**
+     * The version is read by the insert itself, so it costs no extra round trip; it is {@code null} once the user
+     * has been deleted. The outbox is not cached by Hibernate either.
+     */
+    @Override
+    public int insertOutboxEvent(Long userId, UserEventType type) {
+        return jdbcTemplate.update(INSERT_OUTBOX_EVENT_SQL, userId, type.name(), userId);
+    }
+
+    @Override
+    public int[] insertOutboxEvents(Collection<Long> userIds, UserEventType type) {
+        var batch = new ArrayList<Object[]>(userIds.size());
+        userIds.forEach(id -> batch.add(new Object[]{id, type.name(), id}));
+        return jdbcTemplate.batchUpdate(INSERT_OUTBOX_EVENT_SQL, batch);
+    }
+
+    @Override
+    public int[] insertCreatedOutboxEvents(Collection<String> emails) {
+        var batch = new ArrayList<Object[]>(emails.size());
+        emails.forEach(email -> batch.add(new Object[]{UserEventType.CREATED.name(), email}));
+        return jdbcTemplate.batchUpdate(INSERT_CREATED_OUTBOX_EVENT_SQL, batch);
+    }
+
+    @Override
+    public LocalDateTime currentTimestamp() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP(6)", LocalDateTime.class);
+    }
+
+    private void invalidateSecondLevelCache() {
+        var session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BulkOperationCleanupAction.schedule(session,
+                session.getFactory().getMappingMetamodel().getEntityDescriptor(User.class));
+    }
+
+    private static void setColumns(PreparedStatement ps, User user) throws SQLException {
+        ps.setString(1, user.getEmail());
+        ps.setString(2, user.getFirstName());
+        ps.setString(3, user.getLastName());
+        ps.setDate(4, Date.valueOf(user.getBirthDate()));
+        ps.setString(5, user.getAddress());
+        ps.setString(6, user.getPhoneNumber());
+    }
+}
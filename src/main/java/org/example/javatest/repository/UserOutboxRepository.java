@@ -0,0 +1,37 @@
+package org.example.javatest.repository;
+
+import org.example.javatest.dto.response.UserChangeEvent;
+import org.example.javatest.model.UserOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Events are written by {@link UserBatchRepository#insertOutboxEvent} next to the change they record, and read
+ * straight into {@link UserChangeEvent} in offset order.
+ */
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEvent, Long> {
+
+    String EVENT_SELECT = "select new org.example.javatest.dto.response.UserChangeEvent("
+            + "e.id, e.type, e.userId, e.version, e.createdAt) from UserOutboxEvent e ";
+
+    @Query(EVENT_SELECT + "where e.id > :after order by e.id")
+    List<UserChangeEvent> findAfter(Long after, Pageable pageable);
+
+    @Query(EVENT_SELECT + "where e.id > :after and e.id <= :through order by e.id")
+    List<UserChangeEvent> findBetween(Long after, Long through, Pageable pageable);
+
+    @Query("select min(e.id) from UserOutboxEvent e")
+    Long findFirstOffset();
+
+    @Query("select max(e.id) from UserOutboxEvent e")
+    Long findLastOffset();
+
+    @Modifying
+    @Query("delete from UserOutboxEvent e where e.createdAt < :cutoff")
+    int deleteCreatedBefore(LocalDateTime cutoff);
+}
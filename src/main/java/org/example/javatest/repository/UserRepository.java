@@ -1,14 +1,110 @@
 package org.example.javatest.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.javatest.dto.UserDto;
 import org.example.javatest.model.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserBatchRepository {
+
+    /**
+     * Range reads project straight into {@link UserDto}: no managed entities, no persistence-context
+     * growth and no dirty checking. The ordering matches the {@code (birth_date, id)} index.
+     */
+    String USER_DTO_SELECT = "select new org.example.javatest.dto.UserDto("
+            + "u.id, u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber, u.version) from User u ";
 
     Optional<User> findByEmail(String email);
-    List<User> findByBirthDateBetween(LocalDate start, LocalDate end);
+    boolean existsByEmail(String email);
+
+    /**
+     * Single-statement delete; returns the number of rows removed.
+     */
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(Long id);
+
+    /**
+     * Single-statement update that overwrites every column without loading the entity and bumps the version.
+     * With a non-null {@code version} the row only matches while it still has that version. Returns the number of
+     * rows matched (the MariaDB driver reports found rows, not changed rows), so an update that changes nothing
+     * still returns 1.
+     */
+    @Modifying
+    @Query("update User u set u.email = :email, u.firstName = :firstName, u.lastName = :lastName, "
+            + "u.birthDate = :birthDate, u.address = :address, u.phoneNumber = :phoneNumber, "
+            + "u.version = u.version + 1 where u.id = :id and (:version is null or u.version = :version)")
+    int updateUser(Long id, Long version, String email, String firstName, String lastName, LocalDate birthDate,
+                   String address, String phoneNumber);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    @Query("select u.id from User u where u.id in :ids")
+    Set<Long> findExistingIds(Collection<Long> ids);
+
+    List<EmailOwner> findByEmailIn(Collection<String> emails);
+
+    /**
+     * Cacheable in Hibernate's query cache when it is enabled; any write to {@code users} invalidates it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(USER_DTO_SELECT + "where u.birthDate between :from and :to order by u.birthDate, u.id")
+    List<UserDto> findByBirthDateBetween(LocalDate from, LocalDate to);
+
+    @Query(USER_DTO_SELECT + "where u.birthDate between :from and :to order by u.birthDate, u.id")
+    List<UserDto> findFirstPageByBirthDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query(USER_DTO_SELECT + "where u.birthDate between :from and :to "
+            + "and u.birthDate >= :lastBirthDate and (u.birthDate > :lastBirthDate or u.id > :lastId) "
+            + "order by u.birthDate, u.id")
+    List<UserDto> findNextPageByBirthDateBetween(LocalDate from, LocalDate to,
+                                                 LocalDate lastBirthDate, Long lastId, Pageable pageable);
+
+    /**
+     * {@code monthDay} is today's {@code month * 100 + day}; users born later in the year are counted as
+     * {@code beforeBirthday}.
+     */
+    @Query("select year(u.birthDate) as year, count(u) as users, "
+            + "sum(case when month(u.birthDate) * 100 + day(u.birthDate) > :monthDay then 1 else 0 end) as beforeBirthday "
+            + "from User u where u.birthDate between :from and :to "
+            + "group by year(u.birthDate) order by year(u.birthDate)")
+    List<BirthYearCount> countByBirthYear(LocalDate from, LocalDate to, int monthDay);
+
+    @Query("select year(u.birthDate) as year, month(u.birthDate) as month, count(u) as users "
+            + "from User u where u.birthDate between :from and :to "
+            + "group by year(u.birthDate), month(u.birthDate) order by year(u.birthDate), month(u.birthDate)")
+    List<BirthMonthCount> countByBirthMonth(LocalDate from, LocalDate to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(USER_DTO_SELECT + "where u.birthDate between :from and :to order by u.birthDate, u.id")
+    Stream<UserDto> streamByBirthDateBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Users written after the {@code (updated_at, id)} position, up to {@code horizon}, in index order.
+     */
+    @Query("select u.id as id, u.email as email, u.firstName as firstName, u.lastName as lastName, "
+            + "u.birthDate as birthDate, u.address as address, u.phoneNumber as phoneNumber, u.version as version, "
+            + "u.updatedAt as updatedAt from User u where u.updatedAt <= :horizon "
+            + "and u.updatedAt >= :lastChangedAt and (u.updatedAt > :lastChangedAt or u.id > :lastId) "
+            + "order by u.updatedAt, u.id")
+    List<ChangedUser> findChangedSince(LocalDateTime lastChangedAt, Long lastId, LocalDateTime horizon,
+                                       Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
 }
@@ -0,0 +1,29 @@
+package org.example.javatest.repository;
+
+import org.example.javatest.model.UserTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tombstones are written by {@link UserBatchRepository#insertTombstones} next to the delete they record.
+ */
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+
+    /**
+     * Tombstones after the {@code (deleted_at, user_id)} position, up to {@code horizon}, in index order.
+     */
+    @Query("select t from UserTombstone t where t.deletedAt <= :horizon "
+            + "and t.deletedAt >= :lastChangedAt and (t.deletedAt > :lastChangedAt or t.userId > :lastId) "
+            + "order by t.deletedAt, t.userId")
+    List<UserTombstone> findDeletedSince(LocalDateTime lastChangedAt, Long lastId, LocalDateTime horizon,
+                                         Pageable pageable);
+
+    @Modifying
+    @Query("delete from UserTombstone t where t.deletedAt < :cutoff")
+    int deleteDeletedBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,171 @@
+package org.example.javatest.service;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.jbosslog.JBossLog;
+import org.example.javatest.datasource.DataSourceRoute;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.response.ChangeType;
+import org.example.javatest.dto.response.UserChange;
+import org.example.javatest.dto.response.UserChangesResponse;
+import org.example.javatest.exception.ChangeTokenExpiredException;
+import org.example.javatest.exception.InvalidPageRequestException;
+import org.example.javatest.model.UserTombstone;
+import org.example.javatest.pagination.ChangeToken;
+import org.example.javatest.repository.ChangedUser;
+import org.example.javatest.repository.UserRepository;
+import org.example.javatest.repository.UserTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * The changes feed: every user written, and every user deleted, after a {@link ChangeToken}, in
+ * {@code (changed_at, id)} order.
+ * <p>
+ * {@code updated_at} is set by the database when a statement runs, but the row only becomes visible when its
+ * transaction commits, so a slow transaction can commit a change older than one already returned. The feed only
+ * returns changes at least {@code settleTime} old, which must exceed the longest write transaction. Tombstones are
+ * purged after {@code tombstoneRetention}; a token older than that is rejected, because deletions may be missing
+ * after it, and the consumer has to resync from the start.
+ */
+@JBossLog
+@Service
+public class UserChangeService {
+
+    private static final Comparator<ChangeToken> ORDER = Comparator.comparing(ChangeToken::getChangedAt)
+            .thenComparing(ChangeToken::getId);
+
+    private final UserRepository userRepository;
+    private final UserTombstoneRepository tombstoneRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transaction;
+    private final Duration settleTime;
+    private final Duration tombstoneRetention;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final Counter purgedTombstones;
+
+    public UserChangeService(UserRepository userRepository,
+                             UserTombstoneRepository tombstoneRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${user.changes.settle-time:5s}") Duration settleTime,
+                             @Value("${user.changes.tombstone-retention:30d}") Duration tombstoneRetention,
+                             @Value("${user.changes.page-size.default:1000}") int defaultPageSize,
+                             @Value("${user.changes.page-size.max:10000}") int maxPageSize) {
+        this.userRepository = userRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.settleTime = settleTime;
+        this.tombstoneRetention = tombstoneRetention;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.purgedTombstones = Counter.builder("user.changes.tombstones.purged")
+                .description("Tombstones removed after the retention period")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns up to {@code size} changes after {@code since}, or from the start without one. The returned token
+     * resumes after the last change; when nothing has changed it is the one passed in.
+     */
+    @Timed(UserService.OPERATION_TIMER)
+    public UserChangesResponse findChangesSince(String since, Integer size) {
+        var token = since == null ? ChangeToken.START : ChangeToken.decode(since);
+        int pageSize = resolvePageSize(size);
+
+        log.debugf("Reading up to %d user changes", pageSize);
+        // A lagging replica would hide changes that are already behind the horizon, and they would never be sent.
+        var response = DataSourceRoute.onPrimary(() -> readOnlyTransaction.execute(status -> readPage(token, pageSize)));
+        log.infof("Found %d user changes", response.getChanges().size());
+        return response;
+    }
+
+    @Scheduled(initialDelayString = "${user.changes.purge-interval:PT1H}",
+            fixedDelayString = "${user.changes.purge-interval:PT1H}")
+    public void purgeTombstones() {
+        int purged = transaction.execute(status -> tombstoneRepository.deleteDeletedBefore(
+                userRepository.currentTimestamp().minus(tombstoneRetention)));
+        purgedTombstones.increment(purged);
+        log.infof("Purged %d user tombstones", purged);
+    }
+
+    private UserChangesResponse readPage(ChangeToken token, int pageSize) {
+        var now = userRepository.currentTimestamp();
+        if (!token.isStart() && token.getChangedAt().isBefore(now.minus(tombstoneRetention))) {
+            throw new ChangeTokenExpiredException("Change token has expired; sync again without a token.");
+        }
+        var horizon = now.minus(settleTime);
+        var limit = PageRequest.ofSize(pageSize + 1);
+        var upserts = userRepository.findChangedSince(token.getChangedAt(), token.getId(), horizon, limit);
+        var deletions = tombstoneRepository.findDeletedSince(token.getChangedAt(), token.getId(), horizon, limit);
+
+        var changes = new ArrayList<UserChange>(Math.min(pageSize, upserts.size() + deletions.size()));
+        var last = token;
+        int u = 0;
+        int d = 0;
+        while (changes.size() < pageSize && (u < upserts.size() || d < deletions.size())) {
+            if (d == deletions.size()
+                    || u < upserts.size() && ORDER.compare(position(upserts.get(u)), position(deletions.get(d))) < 0) {
+                var user = upserts.get(u++);
+                changes.add(upserted(user));
+                last = position(user);
+            } else {
+                var tombstone = deletions.get(d++);
+                changes.add(deleted(tombstone));
+                last = position(tombstone);
+            }
+        }
+
+        return UserChangesResponse.builder()
+                .changes(changes)
+                .nextToken(last.encode())
+                .hasMore(upserts.size() + deletions.size() > changes.size())
+                .build();
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new InvalidPageRequestException("Page size must be at least 1.");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static ChangeToken position(ChangedUser user) {
+        return new ChangeToken(user.getUpdatedAt(), user.getId());
+    }
+
+    private static ChangeToken position(UserTombstone tombstone) {
+        return new ChangeToken(tombstone.getDeletedAt(), tombstone.getUserId());
+    }
+
+    private static UserChange upserted(ChangedUser user) {
+        return UserChange.builder()
+                .type(ChangeType.UPSERTED)
+                .id(user.getId())
+                .user(new UserDto(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                        user.getBirthDate(), user.getAddress(), user.getPhoneNumber(), user.getVersion()))
+                .build();
+    }
+
+    private static UserChange deleted(UserTombstone tombstone) {
+        return UserChange.builder()
+                .type(ChangeType.DELETED)
+                .id(tombstone.getUserId())
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.javatest.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.mapper.UserMapper;
+import org.example.javatest.repository.UserRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of {@link UserRepository} lookups by id and email.
+ * <p>
+ * Missing ids are not cached, because bulk inserts assign ids this service never sees. For emails only absence is
+ * cached: every path that adds an email knows it and evicts it, while deletes and updates run as direct DML that
+ * never sees the email being freed. Writers call {@link #evict}, which evicts immediately and again after commit,
+ * so a concurrent reader cannot re-cache the pre-commit state.
+ */
+@Service
+public class UserLookupService {
+
+    public static final String USERS_BY_ID = "users-by-id";
+    public static final String EMAIL_EXISTS = "users-by-email";
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final CacheManager cacheManager;
+    private final Timer idLoadTimer;
+    private final Timer emailLoadTimer;
+
+    public UserLookupService(UserRepository userRepository, UserMapper userMapper,
+                             CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.cacheManager = cacheManager;
+        this.idLoadTimer = loadTimer(meterRegistry, USERS_BY_ID);
+        this.emailLoadTimer = loadTimer(meterRegistry, EMAIL_EXISTS);
+    }
+
+    @Cacheable(cacheNames = USERS_BY_ID, unless = "#result == null")
+    public Optional<UserDto> findById(Long id) {
+        return idLoadTimer.record(() -> userRepository.findById(id).map(userMapper::toUserDto));
+    }
+
+    @Cacheable(cacheNames = EMAIL_EXISTS, key = "#email.toLowerCase(T(java.util.Locale).ROOT)", unless = "#result")
+    public boolean existsByEmail(String email) {
+        return emailLoadTimer.record(() -> userRepository.existsByEmail(email));
+    }
+
+    public void evict(Long id, String... emails) {
+        evictNow(id, emails);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id, emails);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long id, String... emails) {
+        var byId = cacheManager.getCache(USERS_BY_ID);
+        if (byId != null && id != null) {
+            byId.evict(id);
+        }
+        var byEmail = cacheManager.getCache(EMAIL_EXISTS);
+        if (byEmail != null) {
+            for (String email : emails) {
+                if (email != null) {
+                    byEmail.evict(email.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String cacheName) {
+        return Timer.builder("user.cache.load")
+                .tag("cache", cacheName)
+                .description("Time spent loading a cache miss from the database")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -1,104 +1,645 @@
 package org.example.javatest.service;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.jbosslog.JBossLog;
+import org.example.javatest.cache.EmailExistenceIndex;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.request.BirthDateGrouping;
 import org.example.javatest.dto.request.CreateUserRequest;
 import org.example.javatest.dto.request.UpdateUserRequest;
+import org.example.javatest.dto.request.UserRequest;
 import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.example.javatest.dto.response.BirthDateBucket;
+import org.example.javatest.dto.response.BirthDateStatsResponse;
+import org.example.javatest.dto.response.BulkItemStatus;
+import org.example.javatest.dto.response.BulkUserResponse;
+import org.example.javatest.dto.response.BulkUserResult;
+import org.example.javatest.dto.response.UserEventType;
 import org.example.javatest.exception.AgeLessEighteenException;
 import org.example.javatest.exception.InvalidDateRangeException;
+import org.example.javatest.exception.InvalidPageRequestException;
+import org.example.javatest.exception.InvalidStatsRequestException;
 import org.example.javatest.exception.UserExistException;
 import org.example.javatest.exception.UserNotFoundException;
+import org.example.javatest.exception.UserVersionConflictException;
 import org.example.javatest.mapper.UserMapper;
+import org.example.javatest.pagination.BirthDateCursor;
+import org.example.javatest.repository.EmailOwner;
 import org.example.javatest.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.Period;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @JBossLog
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    public static final String OPERATION_TIMER = "user.service";
+    public static final String SEARCH_RESULTS = "user.search.results";
+    public static final int MAX_AGE_BAND_WIDTH = 150;
+
+    private static final String EMAIL_UNIQUE_KEY = "uk_users_email";
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final EmailExistenceIndex emailExistenceIndex;
+    private final UserLookupService userLookupService;
+    private final MeterRegistry meterRegistry;
     @Value("${user.registration.min-age}")
     private int minAge;
+    @Value("${user.search.page-size.default:100}")
+    private int defaultPageSize;
+    @Value("${user.search.page-size.max:1000}")
+    private int maxPageSize;
+    @Value("${user.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
 
+    @Timed(OPERATION_TIMER)
     @Transactional
     public void createUser(CreateUserRequest createUserRequest) {
-        log.info("Attempting to create user: " + createUserRequest);
+        log.debug("Attempting to create user");
         validateAge(createUserRequest.getBirthDate());
         checkIfUserExists(createUserRequest.getEmail());
 
         var newUser = userMapper.toEntity(createUserRequest);
-        userRepository.save(newUser);
-        log.info("User created successfully: " + newUser.getId());
+        try {
+            userRepository.save(newUser);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateEmail(e)) {
+                throw e;
+            }
+            throw new UserExistException("User with this email already exists.");
+        }
+        userRepository.insertOutboxEvent(newUser.getId(), UserEventType.CREATED);
+        emailExistenceIndex.addAfterCommit(createUserRequest.getEmail());
+        userLookupService.evict(newUser.getId(), createUserRequest.getEmail());
+        log.infof("User created successfully: %d", newUser.getId());
+    }
+
+    /**
+     * Creates users chunk by chunk, each chunk in its own transaction. A {@code null} element stands for a
+     * record that could not be parsed. Rows that fail validation or collide with an existing email are
+     * reported individually instead of failing the whole upload.
+     */
+    @Timed(OPERATION_TIMER)
+    public BulkUserResponse bulkCreateUsers(Iterator<CreateUserRequest> requests) {
+        var seenEmails = new HashSet<String>();
+        var results = processInChunks(requests, (chunk, offset) -> createChunk(chunk, offset, seenEmails));
+        return toBulkResponse("create", results, BulkItemStatus.CREATED);
+    }
+
+    /**
+     * Updates users chunk by chunk, each chunk in its own transaction and JDBC batch. A {@code null} element
+     * stands for a record that could not be parsed. Age and email uniqueness are checked for the whole chunk
+     * with one query each, and every row gets its own result.
+     */
+    @Timed(OPERATION_TIMER)
+    public BulkUserResponse bulkUpdateUsers(Iterator<UpdateUserRequest> requests) {
+        var seenIds = new HashSet<Long>();
+        var seenEmails = new HashSet<String>();
+        var results = processInChunks(requests, (chunk, offset) -> updateChunk(chunk, offset, seenIds, seenEmails));
+        return toBulkResponse("update", results, BulkItemStatus.UPDATED);
     }
 
+    /**
+     * Deletes users chunk by chunk, each chunk in its own transaction with a single {@code DELETE ... IN}.
+     */
+    @Timed(OPERATION_TIMER)
+    public BulkUserResponse bulkDeleteUsers(List<Long> ids) {
+        var seenIds = new HashSet<Long>();
+        var results = processInChunks(ids.iterator(), (chunk, offset) -> deleteChunk(chunk, offset, seenIds));
+        return toBulkResponse("delete", results, BulkItemStatus.DELETED);
+    }
+
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
     public AllUserByDateRangeResponse findUsersByBirthDateRange(LocalDate from, LocalDate to) {
         validateDateRange(from, to);
 
-        log.info("Finding users between dates: " + from + " and " + to);
-        var users = userRepository.findByBirthDateBetween(from,
-                        to)
-                .stream()
-                .map(userMapper::toUserDto)
-                .toList();
+        log.debugf("Finding users between dates: %s and %s", from, to);
+        var users = userRepository.findByBirthDateBetween(from, to);
 
-        log.info("Found " + users.size() + " users");
+        log.infof("Found %d users", users.size());
+        recordSearchResults("list", users.size());
         return AllUserByDateRangeResponse.builder()
                 .users(users)
                 .build();
     }
 
-    public void deleteUserById(Long id) {
-        log.info("Attempting to delete user with ID: " + id);
-        var user = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException("User with id: " + id + " not found"));
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
+    public AllUserByDateRangeResponse findUsersByBirthDateRange(LocalDate from, LocalDate to, String cursor, Integer size) {
+        validateDateRange(from, to);
+        int pageSize = resolvePageSize(size);
 
-        userRepository.delete(user);
-        log.info("User deleted successfully: " + id);
+        log.debugf("Finding page of %d users between dates: %s and %s", pageSize, from, to);
+        var pageRequest = PageRequest.ofSize(pageSize + 1);
+        var users = cursor == null
+                ? userRepository.findFirstPageByBirthDateBetween(from, to, pageRequest)
+                : findNextPage(from, to, BirthDateCursor.decode(cursor), pageRequest);
+
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            var last = users.get(pageSize - 1);
+            nextCursor = new BirthDateCursor(last.getBirthDate(), last.getId()).encode();
+        }
+
+        log.infof("Found %d users", users.size());
+        recordSearchResults("page", users.size());
+        return AllUserByDateRangeResponse.builder()
+                .users(users)
+                .nextCursor(nextCursor)
+                .build();
     }
 
+    /**
+     * Counts users per birth year, birth month or age band (ages as of today) with a single {@code GROUP BY}
+     * query. Empty buckets are left out.
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
+    public BirthDateStatsResponse getBirthDateStats(LocalDate from, LocalDate to, BirthDateGrouping groupBy,
+                                                    int bandWidth) {
+        validateDateRange(from, to);
+        if (groupBy == BirthDateGrouping.AGE_BAND && (bandWidth < 1 || bandWidth > MAX_AGE_BAND_WIDTH)) {
+            throw new InvalidStatsRequestException("Band width must be between 1 and " + MAX_AGE_BAND_WIDTH);
+        }
+
+        log.debugf("Counting users between dates: %s and %s by %s", from, to, groupBy);
+        var buckets = switch (groupBy) {
+            case YEAR -> userRepository.countByBirthYear(from, to, 0).stream()
+                    .map(row -> new BirthDateBucket(String.valueOf(row.getYear()), row.getUsers()))
+                    .toList();
+            case MONTH -> userRepository.countByBirthMonth(from, to).stream()
+                    .map(row -> new BirthDateBucket(
+                            String.format(Locale.ROOT, "%04d-%02d", row.getYear(), row.getMonth()), row.getUsers()))
+                    .toList();
+            case AGE_BAND -> countByAgeBand(from, to, bandWidth);
+        };
+        long total = buckets.stream()
+                .mapToLong(BirthDateBucket::getCount)
+                .sum();
+
+        log.infof("Counted %d users in %d buckets", total, buckets.size());
+        return BirthDateStatsResponse.builder()
+                .from(from)
+                .to(to)
+                .groupBy(groupBy)
+                .bandWidth(groupBy == BirthDateGrouping.AGE_BAND ? bandWidth : null)
+                .total(total)
+                .buckets(buckets)
+                .build();
+    }
+
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
+    public void streamUsersByBirthDateRange(LocalDate from, LocalDate to, Consumer<UserDto> consumer) {
+        validateDateRange(from, to);
+
+        log.debugf("Streaming users between dates: %s and %s", from, to);
+        long[] count = {0};
+        try (var users = userRepository.streamByBirthDateBetween(from, to)) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                count[0]++;
+            });
+        } finally {
+            recordSearchResults("stream", count[0]);
+        }
+    }
+
+    @Timed(OPERATION_TIMER)
     @Transactional
-    public void updateUser(UpdateUserRequest userRequest) {
-        log.info("Attempting to update user: " + userRequest.getId());
-        var user = userRepository.findById(userRequest.getId())
-                .orElseThrow(() -> new UserNotFoundException("User with id: " + userRequest.getId() + " not found"));
+    public void deleteUserById(Long id) {
+        log.debugf("Attempting to delete user with ID: %d", id);
+        if (userRepository.deleteUserById(id) == 0) {
+            throw new UserNotFoundException("User with id: " + id + " not found");
+        }
+        userRepository.insertTombstones(List.of(id));
+        userRepository.insertOutboxEvent(id, UserEventType.DELETED);
+        userLookupService.evict(id);
+        log.infof("User deleted successfully: %d", id);
+    }
 
+    /**
+     * Overwrites the user with one {@code UPDATE} and records the change in the outbox with a second statement. With
+     * an {@code expectedVersion} the update only applies while the row still has that version, and the new version is
+     * returned; without one the update is unconditional and {@code null} is returned. A rejected update writes no
+     * event, but telling a missing user from a stale version costs one more query.
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional
+    public Long updateUser(UpdateUserRequest userRequest, Long expectedVersion) {
+        log.debugf("Attempting to update user: %d", userRequest.getId());
         validateAge(userRequest.getBirthDate());
-        if(!Objects.equals(user.getEmail(), userRequest.getEmail())) {
-            checkIfUserExists(userRequest.getEmail());
+
+        int updated;
+        try {
+            updated = userRepository.updateUser(userRequest.getId(), expectedVersion, userRequest.getEmail(),
+                    userRequest.getFirstName(), userRequest.getLastName(), userRequest.getBirthDate(),
+                    userRequest.getAddress(), userRequest.getPhoneNumber());
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateEmail(e)) {
+                throw e;
+            }
+            throw new UserExistException("User with this email already exists.");
+        }
+        if (updated == 0) {
+            if (expectedVersion != null && userRepository.existsById(userRequest.getId())) {
+                log.debugf("User %d is no longer at version %d", userRequest.getId(), expectedVersion);
+                throw new UserVersionConflictException("User with id: " + userRequest.getId()
+                        + " was modified concurrently; reload it and retry.");
+            }
+            throw new UserNotFoundException("User with id: " + userRequest.getId() + " not found");
         }
+        userRepository.insertOutboxEvent(userRequest.getId(), UserEventType.UPDATED);
+        emailExistenceIndex.addAfterCommit(userRequest.getEmail());
+        userLookupService.evict(userRequest.getId(), userRequest.getEmail());
+        log.infof("User updated successfully: %d", userRequest.getId());
+        return expectedVersion == null ? null : expectedVersion + 1;
+    }
 
-        user.setEmail(userRequest.getEmail());
-        user.setFirstName(userRequest.getFirstName());
-        user.setLastName(userRequest.getLastName());
-        user.setBirthDate(userRequest.getBirthDate());
-        user.setAddress(userRequest.getAddress());
-        user.setPhoneNumber(userRequest.getPhoneNumber());
-        log.info("User updated successfully: " + user.getId());
+    @Timed(OPERATION_TIMER)
+    public UserDto findUserById(Long id) {
+        return userLookupService.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User with id: " + id + " not found"));
+    }
+
+    private <T> List<BulkUserResult> processInChunks(Iterator<T> items,
+                                                     BiFunction<List<T>, Integer, List<BulkUserResult>> processChunk) {
+        var results = new ArrayList<BulkUserResult>();
+        var chunk = new ArrayList<T>(bulkChunkSize);
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == bulkChunkSize) {
+                results.addAll(processChunk.apply(chunk, results.size()));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(processChunk.apply(chunk, results.size()));
+        }
+        return results;
+    }
+
+    private BulkUserResponse toBulkResponse(String operation, List<BulkUserResult> results, BulkItemStatus success) {
+        int succeeded = (int) results.stream()
+                .filter(result -> result.getStatus() == success)
+                .count();
+        log.infof("Bulk %s finished: %d of %d records succeeded", operation, succeeded, results.size());
+        return BulkUserResponse.builder()
+                .total(results.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    private List<BulkUserResult> createChunk(List<CreateUserRequest> chunk, int offset, Set<String> seenEmails) {
+        var results = new BulkUserResult[chunk.size()];
+        var candidates = new ArrayList<Integer>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            var request = chunk.get(i);
+            var invalidReason = findInvalidReason(request);
+            if (invalidReason != null) {
+                results[i] = new BulkUserResult(offset + i, request == null ? null : request.getEmail(),
+                        BulkItemStatus.INVALID, invalidReason);
+            } else if (!seenEmails.add(normalizeEmail(request.getEmail()))) {
+                results[i] = new BulkUserResult(offset + i, request.getEmail(),
+                        BulkItemStatus.DUPLICATE, "Email appears more than once in this request.");
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertCandidates(chunk, candidates, offset, results));
+            } catch (DataIntegrityViolationException e) {
+                log.warnf("Batch insert rejected by a constraint, retrying rows one by one: %s", e.getMessage());
+                candidates.stream()
+                        .filter(i -> results[i] == null)
+                        .forEach(i -> results[i] = insertSingle(chunk.get(i), offset + i));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void insertCandidates(List<CreateUserRequest> chunk, List<Integer> candidates, int offset,
+                                  BulkUserResult[] results) {
+        var existingEmails = userRepository.findExistingEmails(candidates.stream()
+                        .map(i -> chunk.get(i).getEmail())
+                        .toList())
+                .stream()
+                .map(this::normalizeEmail)
+                .collect(Collectors.toSet());
+
+        var toInsert = new ArrayList<Integer>(candidates.size());
+        for (int i : candidates) {
+            var email = chunk.get(i).getEmail();
+            if (existingEmails.contains(normalizeEmail(email))) {
+                results[i] = new BulkUserResult(offset + i, email, BulkItemStatus.DUPLICATE,
+                        "User with this email already exists.");
+            } else {
+                toInsert.add(i);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        userRepository.insertAll(toInsert.stream()
+                .map(i -> userMapper.toEntity(chunk.get(i)))
+                .toList());
+        userRepository.insertCreatedOutboxEvents(toInsert.stream()
+                .map(i -> chunk.get(i).getEmail())
+                .toList());
+        toInsert.forEach(i -> {
+            results[i] = new BulkUserResult(offset + i, chunk.get(i).getEmail(), BulkItemStatus.CREATED, null);
+            emailExistenceIndex.addAfterCommit(chunk.get(i).getEmail());
+            userLookupService.evict(null, chunk.get(i).getEmail());
+        });
+    }
+
+    private BulkUserResult insertSingle(CreateUserRequest request, int index) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.insertAll(List.of(userMapper.toEntity(request)));
+                userRepository.insertCreatedOutboxEvents(List.of(request.getEmail()));
+                emailExistenceIndex.addAfterCommit(request.getEmail());
+                userLookupService.evict(null, request.getEmail());
+            });
+            return new BulkUserResult(index, request.getEmail(), BulkItemStatus.CREATED, null);
+        } catch (DataIntegrityViolationException e) {
+            return new BulkUserResult(index, request.getEmail(), BulkItemStatus.FAILED,
+                    "Rejected by a database constraint.");
+        }
+    }
+
+    private List<BulkUserResult> updateChunk(List<UpdateUserRequest> chunk, int offset,
+                                             Set<Long> seenIds, Set<String> seenEmails) {
+        var results = new BulkUserResult[chunk.size()];
+        var candidates = new ArrayList<Integer>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            var request = chunk.get(i);
+            var invalidReason = findInvalidReason(request);
+            if (invalidReason != null) {
+                results[i] = new BulkUserResult(offset + i, request == null ? null : request.getId(),
+                        request == null ? null : request.getEmail(), BulkItemStatus.INVALID, invalidReason);
+            } else if (!seenIds.add(request.getId())) {
+                results[i] = new BulkUserResult(offset + i, request.getId(), request.getEmail(),
+                        BulkItemStatus.DUPLICATE, "Id appears more than once in this request.");
+            } else if (!seenEmails.add(normalizeEmail(request.getEmail()))) {
+                results[i] = new BulkUserResult(offset + i, request.getId(), request.getEmail(),
+                        BulkItemStatus.DUPLICATE, "Email appears more than once in this request.");
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> updateCandidates(chunk, candidates, offset, results));
+            } catch (DataIntegrityViolationException e) {
+                log.warnf("Batch update rejected by a constraint, retrying rows one by one: %s", e.getMessage());
+                candidates.stream()
+                        .filter(i -> results[i] == null || results[i].getStatus() == BulkItemStatus.UPDATED)
+                        .forEach(i -> results[i] = updateSingle(chunk.get(i), offset + i));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void updateCandidates(List<UpdateUserRequest> chunk, List<Integer> candidates, int offset,
+                                  BulkUserResult[] results) {
+        var existingIds = userRepository.findExistingIds(candidates.stream()
+                .map(i -> chunk.get(i).getId())
+                .toList());
+        var emailOwners = userRepository.findByEmailIn(candidates.stream()
+                        .map(i -> chunk.get(i).getEmail())
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(owner -> normalizeEmail(owner.getEmail()), EmailOwner::getId));
+
+        var toUpdate = new ArrayList<Integer>(candidates.size());
+        for (int i : candidates) {
+            var request = chunk.get(i);
+            var owner = emailOwners.get(normalizeEmail(request.getEmail()));
+            if (!existingIds.contains(request.getId())) {
+                results[i] = new BulkUserResult(offset + i, request.getId(), request.getEmail(),
+                        BulkItemStatus.NOT_FOUND, "User with id: " + request.getId() + " not found");
+            } else if (owner != null && !owner.equals(request.getId())) {
+                results[i] = new BulkUserResult(offset + i, request.getId(), request.getEmail(),
+                        BulkItemStatus.DUPLICATE, "User with this email already exists.");
+            } else {
+                toUpdate.add(i);
+            }
+        }
+        if (toUpdate.isEmpty()) {
+            return;
+        }
+
+        userRepository.updateAll(toUpdate.stream()
+                .map(i -> userMapper.toEntity(chunk.get(i)))
+                .toList());
+        userRepository.insertOutboxEvents(toUpdate.stream()
+                .map(i -> chunk.get(i).getId())
+                .toList(), UserEventType.UPDATED);
+        toUpdate.forEach(i -> {
+            var request = chunk.get(i);
+            results[i] = new BulkUserResult(offset + i, request.getId(), request.getEmail(), BulkItemStatus.UPDATED, null);
+            emailExistenceIndex.addAfterCommit(request.getEmail());
+            userLookupService.evict(request.getId(), request.getEmail());
+        });
+    }
+
+    private BulkUserResult updateSingle(UpdateUserRequest request, int index) {
+        try {
+            var updated = transactionTemplate.execute(status -> {
+                int count = userRepository.updateUser(request.getId(), null, request.getEmail(), request.getFirstName(),
+                        request.getLastName(), request.getBirthDate(), request.getAddress(), request.getPhoneNumber());
+                if (count > 0) {
+                    userRepository.insertOutboxEvent(request.getId(), UserEventType.UPDATED);
+                }
+                emailExistenceIndex.addAfterCommit(request.getEmail());
+                userLookupService.evict(request.getId(), request.getEmail());
+                return count;
+            });
+            return updated != null && updated > 0
+                    ? new BulkUserResult(index, request.getId(), request.getEmail(), BulkItemStatus.UPDATED, null)
+                    : new BulkUserResult(index, request.getId(), request.getEmail(), BulkItemStatus.NOT_FOUND,
+                            "User with id: " + request.getId() + " not found");
+        } catch (DataIntegrityViolationException e) {
+            return new BulkUserResult(index, request.getId(), request.getEmail(), BulkItemStatus.FAILED,
+                    "Rejected by a database constraint.");
+        }
+    }
+
+    private List<BulkUserResult> deleteChunk(List<Long> chunk, int offset, Set<Long> seenIds) {
+        var results = new BulkUserResult[chunk.size()];
+        var candidates = new ArrayList<Long>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            var id = chunk.get(i);
+            if (id == null) {
+                results[i] = new BulkUserResult(offset + i, null, BulkItemStatus.INVALID, "Id cannot be null");
+            } else if (!seenIds.add(id)) {
+                results[i] = new BulkUserResult(offset + i, id, null, BulkItemStatus.DUPLICATE,
+                        "Id appears more than once in this request.");
+            } else {
+                candidates.add(id);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        var deleted = transactionTemplate.execute(status -> {
+            var existingIds = userRepository.findExistingIds(candidates);
+            if (!existingIds.isEmpty()) {
+                userRepository.deleteAllByIdInBatch(existingIds);
+                userRepository.insertTombstones(existingIds);
+                userRepository.insertOutboxEvents(existingIds, UserEventType.DELETED);
+                existingIds.forEach(userLookupService::evict);
+            }
+            return existingIds;
+        });
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null) {
+                var id = chunk.get(i);
+                results[i] = deleted.contains(id)
+                        ? new BulkUserResult(offset + i, id, null, BulkItemStatus.DELETED, null)
+                        : new BulkUserResult(offset + i, id, null, BulkItemStatus.NOT_FOUND,
+                                "User with id: " + id + " not found");
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Why a bulk record cannot be written, or {@code null} if it can.
+     */
+    private String findInvalidReason(UserRequest request) {
+        if (request == null) {
+            return "Malformed user record.";
+        }
+        var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (request.getBirthDate() == null || !isOldEnough(request.getBirthDate())) {
+            return "User must be at least " + minAge + " years old to register.";
+        }
+        return null;
+    }
+
+    private List<BirthDateBucket> countByAgeBand(LocalDate from, LocalDate to, int bandWidth) {
+        var today = LocalDate.now();
+        var bands = new TreeMap<Integer, Long>();
+        for (var row : userRepository.countByBirthYear(from, to, today.getMonthValue() * 100 + today.getDayOfMonth())) {
+            int age = today.getYear() - row.getYear();
+            long beforeBirthday = row.getBeforeBirthday();
+            bands.merge(Math.floorDiv(age, bandWidth), row.getUsers() - beforeBirthday, Long::sum);
+            bands.merge(Math.floorDiv(age - 1, bandWidth), beforeBirthday, Long::sum);
+        }
+        return bands.entrySet().stream()
+                .filter(band -> band.getValue() > 0)
+                .map(band -> new BirthDateBucket(band.getKey() * bandWidth + "-" + ((band.getKey() + 1) * bandWidth - 1),
+                        band.getValue()))
+                .toList();
+    }
+
+    private void recordSearchResults(String query, long count) {
+        meterRegistry.summary(SEARCH_RESULTS, "query", query).record(count);
+    }
+
+    private String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether {@code e} is a violation of the unique key on {@code users.email}. Hibernate names the violated
+     * constraint when the dialect can extract it; otherwise the exception messages name it.
+     */
+    private static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(EMAIL_UNIQUE_KEY);
+            }
+            if (cause.getMessage() != null
+                    && cause.getMessage().toLowerCase(Locale.ROOT).contains(EMAIL_UNIQUE_KEY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isOldEnough(LocalDate birthDate) {
+        return Period.between(birthDate, LocalDate.now()).getYears() >= minAge;
     }
 
     private void validateAge(LocalDate birthDate) {
-        if (Period.between(birthDate, LocalDate.now()).getYears() < minAge) {
-            log.error("User is too young to register. Required age: " + minAge);
+        if (!isOldEnough(birthDate)) {
             throw new AgeLessEighteenException("User must be at least " + minAge + " years old to register.");
         }
     }
 
     private void checkIfUserExists(String email) {
-        userRepository.findByEmail(email).ifPresent(user -> {
-            log.error("User with email already exists: " + email);
+        if (!emailExistenceIndex.mightContain(email)) {
+            return;
+        }
+        boolean exists = userLookupService.existsByEmail(email);
+        emailExistenceIndex.recordLookup(exists);
+        if (exists) {
             throw new UserExistException("User with this email already exists.");
-        });
+        }
     }
-    private void validateDateRange(LocalDate from, LocalDate to) {
+
+    private List<UserDto> findNextPage(LocalDate from, LocalDate to, BirthDateCursor cursor, Pageable pageable) {
+        return userRepository.findNextPageByBirthDateBetween(from, to, cursor.getBirthDate(), cursor.getId(), pageable);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new InvalidPageRequestException("Page size must be at least 1.");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    public void validateDateRange(LocalDate from, LocalDate to) {
         if (from == null || to == null) {
             throw new InvalidDateRangeException("Both 'from' and 'to' dates must be provided.");
         }
@@ -0,0 +1,61 @@
+package org.example.javatest.validation;
+
+/**
+ * Single-pass scanner for the email syntax accepted by {@link EmailValidator}. It accepts exactly the language of
+ * {@code ^[\w.-]+@[A-Za-z0-9-]+(\.[A-Za-z0-9-]+)*(\.[A-Za-z]{2,})$} without compiling a pattern or allocating.
+ */
+public final class EmailSyntax {
+
+    private EmailSyntax() {
+    }
+
+    public static boolean isValid(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        int length = email.length();
+        int i = 0;
+        while (i < length && isLocalChar(email.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == length || email.charAt(i) != '@') {
+            return false;
+        }
+
+        int labels = 0;
+        int labelLength = 0;
+        boolean labelAlphabetic = true;
+        for (i++; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0) {
+                    return false;
+                }
+                labels++;
+                labelLength = 0;
+                labelAlphabetic = true;
+            } else if (isLetter(c)) {
+                labelLength++;
+            } else if (isDigit(c) || c == '-') {
+                labelLength++;
+                labelAlphabetic = false;
+            } else {
+                return false;
+            }
+        }
+        // at least two labels, and the last one is a top-level domain of two or more letters
+        return labels > 0 && labelLength >= 2 && labelAlphabetic;
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
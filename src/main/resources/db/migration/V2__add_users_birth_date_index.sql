@@ -0,0 +1 @@
+CREATE INDEX idx_users_birth_date_id ON users (birth_date, id);
@@ -0,0 +1,11 @@
+ALTER TABLE users ADD COLUMN created_at DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) NOT NULL;
+ALTER TABLE users ADD COLUMN updated_at DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6) NOT NULL;
+CREATE INDEX idx_users_updated_at_id ON users (updated_at, id);
+
+CREATE TABLE user_tombstones
+(
+    user_id    BIGINT      NOT NULL,
+    deleted_at DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE = InnoDB;
+CREATE INDEX idx_user_tombstones_deleted_at_user_id ON user_tombstones (deleted_at, user_id);
@@ -0,0 +1,10 @@
+CREATE TABLE user_outbox
+(
+    id         BIGINT AUTO_INCREMENT NOT NULL,
+    user_id    BIGINT                NOT NULL,
+    type       VARCHAR(16)           NOT NULL,
+    version    BIGINT                NULL,
+    created_at DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+CREATE INDEX idx_user_outbox_created_at ON user_outbox (created_at);
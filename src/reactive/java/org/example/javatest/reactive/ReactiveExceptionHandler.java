@@ -0,0 +1,118 @@
+package org.example.javatest.reactive;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+import org.example.javatest.exception.AgeLessEighteenException;
+import org.example.javatest.exception.BusinessException;
+import org.example.javatest.exception.InvalidDateRangeException;
+import org.example.javatest.exception.InvalidPageRequestException;
+import org.example.javatest.exception.InvalidStatsRequestException;
+import org.example.javatest.exception.UserExistException;
+import org.example.javatest.exception.UserNotFoundException;
+import org.example.javatest.exception.UserVersionConflictException;
+import org.example.javatest.exhandler.ErrorBodyEncoder;
+import org.example.javatest.exhandler.ExpectedErrorLog;
+import org.example.javatest.exhandler.GlobalExceptionHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.Instant;
+
+/**
+ * Reactive counterpart of {@link GlobalExceptionHandler}: the same statuses, {@code ApiError} bodies, logging and
+ * {@code user.errors} counters.
+ */
+@JBossLog
+@RestControllerAdvice
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    private final MeterRegistry meterRegistry;
+    private final ExpectedErrorLog expectedErrorLog;
+
+    @ExceptionHandler({AgeLessEighteenException.class, InvalidDateRangeException.class,
+            InvalidPageRequestException.class, InvalidStatsRequestException.class})
+    public ResponseEntity<byte[]> handleBadRequest(BusinessException ex, ServerWebExchange exchange) {
+        return handleBusinessException(ex, HttpStatus.BAD_REQUEST, exchange);
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<byte[]> handleUserNotFoundException(UserNotFoundException ex, ServerWebExchange exchange) {
+        return handleBusinessException(ex, HttpStatus.NOT_FOUND, exchange);
+    }
+
+    @ExceptionHandler(UserExistException.class)
+    public ResponseEntity<byte[]> handleUserExistException(UserExistException ex, ServerWebExchange exchange) {
+        return handleBusinessException(ex, HttpStatus.CONFLICT, exchange);
+    }
+
+    @ExceptionHandler(UserVersionConflictException.class)
+    public ResponseEntity<byte[]> handleUserVersionConflictException(UserVersionConflictException ex,
+                                                                     ServerWebExchange exchange) {
+        return handleBusinessException(ex, HttpStatus.PRECONDITION_FAILED, exchange);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<byte[]> handleWebExchangeBindException(WebExchangeBindException ex, ServerWebExchange exchange) {
+        log.debugf("Request body not valid: %s Path: %s", ex.getMessage(), path(exchange));
+        return respond(ex, HttpStatus.BAD_REQUEST, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<byte[]> handleServerWebInputException(ServerWebInputException ex, ServerWebExchange exchange) {
+        log.debugf("Bad request: %s Path: %s", ex.getMessage(), path(exchange));
+        return respond(ex, HttpStatus.BAD_REQUEST, ex.getReason(), exchange);
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<byte[]> handleResponseStatusException(ResponseStatusException ex, ServerWebExchange exchange) {
+        log.debugf("Request rejected: %s Path: %s", ex.getMessage(), path(exchange));
+        return respond(ex, HttpStatus.valueOf(ex.getStatusCode().value()), ex.getReason(), exchange);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<byte[]> handleDataIntegrityViolationException(DataIntegrityViolationException ex,
+                                                                        ServerWebExchange exchange) {
+        log.errorf(ex, "Data integrity violation exception caught: %s Path: %s", ex.getMessage(), path(exchange));
+        return respond(ex, HttpStatus.CONFLICT,
+                "The request conflicts with the current state of the data. Please retry.", exchange);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<byte[]> handleGlobalException(Exception ex, ServerWebExchange exchange) {
+        log.errorf(ex, "Unhandled exception caught: %s Path: %s", ex.getMessage(), path(exchange));
+        return respond(ex, HttpStatus.INTERNAL_SERVER_ERROR,
+                "Sorry, we are unable to process your request right now. Please try again later", exchange);
+    }
+
+    private ResponseEntity<byte[]> handleBusinessException(BusinessException ex, HttpStatus status,
+                                                           ServerWebExchange exchange) {
+        expectedErrorLog.log(ex, status, path(exchange));
+        return respond(ex, status, ex.getMessage(), exchange);
+    }
+
+    private ResponseEntity<byte[]> respond(Exception ex, HttpStatus status, String message, ServerWebExchange exchange) {
+        meterRegistry.counter(GlobalExceptionHandler.ERROR_COUNTER, "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBodyEncoder.encode(status, message, path(exchange), Instant.now()));
+    }
+
+    /**
+     * Same form as {@code WebRequest.getDescription(false)} in the servlet handler.
+     */
+    private static String path(ServerWebExchange exchange) {
+        return "uri=" + exchange.getRequest().getPath().value();
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.javatest.reactive;
+
+import org.example.javatest.exhandler.ExpectedErrorLog;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The {@code /users} API on WebFlux and R2DBC, built with the {@code reactive} Maven profile. Only this package is
+ * scanned, so none of the servlet, JPA or JDBC beans of the default application are created; Flyway still migrates
+ * the schema over its own JDBC connection. Every bean here is conditional on a reactive web application, so the
+ * servlet application ignores this package when both are on the class path.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+@Import(ExpectedErrorLog.class)
+public class ReactiveJavaTestApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveJavaTestApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+
+    /**
+     * Tomcat is on the class path for the servlet build and would otherwise win; the reactive stack runs on Netty.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.javatest.reactive;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+import org.example.javatest.controller.UserETags;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.request.CreateUserRequest;
+import org.example.javatest.dto.request.UpdateUserRequest;
+import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * The single-user and birth-date range endpoints of {@link org.example.javatest.controller.UserController} with the
+ * same paths, parameters, status codes and ETags. Bulk import, batch update and delete, and stats stay on the servlet
+ * build.
+ */
+@JBossLog
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    @PostMapping
+    public Mono<ResponseEntity<Void>> createUser(@Valid @RequestBody CreateUserRequest createUserRequest) {
+        log.debug("Creating a new user");
+        return userService.createUser(createUserRequest)
+                .then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.CREATED).build()));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserDto>> findUserById(@PathVariable("id") Long id) {
+        log.debugf("Finding user with ID: %d", id);
+        return userService.findUserById(id)
+                .map(user -> ResponseEntity.ok()
+                        .eTag(UserETags.toETag(user.getVersion()))
+                        .body(user));
+    }
+
+    @PutMapping
+    public Mono<ResponseEntity<Void>> updateUser(@Valid @RequestBody UpdateUserRequest updateUserRequest,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debugf("Updating user with ID: %d", updateUserRequest.getId());
+        return Mono.defer(() -> userService.updateUser(updateUserRequest, UserETags.parseETag(ifMatch)))
+                .map(newVersion -> ResponseEntity.status(HttpStatus.OK).eTag(UserETags.toETag(newVersion)).<Void>build())
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.OK).build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUserById(@PathVariable("id") Long id) {
+        log.debugf("Attempting to delete user with ID: %d", id);
+        return userService.deleteUserById(id)
+                .then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.OK).build()));
+    }
+
+    @GetMapping("/list/by-birth-date-range")
+    public Mono<ResponseEntity<AllUserByDateRangeResponse>> findUsersByBirthDateRange(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        log.debugf("Searching for users born between %s and %s", from, to);
+        var users = cursor == null && size == null
+                ? userService.findUsersByBirthDateRange(from, to)
+                : userService.findUsersByBirthDateRange(from, to, cursor, size);
+
+        return users.map(ResponseEntity::ok);
+    }
+
+    /**
+     * One JSON object per line, written as the client reads: WebFlux only requests the next rows once the previous
+     * ones are flushed.
+     */
+    @GetMapping(value = "/stream/by-birth-date-range", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserDto> streamUsersByBirthDateRange(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debugf("Streaming users between dates: %s and %s", from, to);
+        return userService.streamUsersByBirthDateRange(from, to);
+    }
+}
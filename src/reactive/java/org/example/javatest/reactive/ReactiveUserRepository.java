@@ -0,0 +1,181 @@
+package org.example.javatest.reactive;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.request.CreateUserRequest;
+import org.example.javatest.dto.request.UpdateUserRequest;
+import org.example.javatest.dto.response.UserEventType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * The statements of {@link org.example.javatest.repository.UserRepository} that the reactive API needs, on R2DBC.
+ * Rows are read straight into {@link UserDto}; range reads are ordered to match the {@code (birth_date, id)} index.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserRepository {
+
+    static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final String USER_DTO_SELECT = "select id, email, first_name, last_name, birth_date, address, "
+            + "phone_number, version from users ";
+    private static final String BIRTH_DATE_RANGE = "where birth_date between :from and :to ";
+    private static final String ORDER = "order by birth_date, id";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("select 1 from users where email = :email limit 1")
+                .bind("email", email)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .hasElement();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("select 1 from users where id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * Inserts the user at version 0 and returns the generated id.
+     */
+    public Mono<Long> insert(CreateUserRequest user) {
+        return bindNullable(databaseClient.sql("insert into users (email, first_name, last_name, birth_date, address, "
+                        + "phone_number, version) values (:email, :firstName, :lastName, :birthDate, :address, "
+                        + ":phoneNumber, 0)")
+                        .bind("email", user.getEmail())
+                        .bind("firstName", user.getFirstName())
+                        .bind("lastName", user.getLastName())
+                        .bind("birthDate", user.getBirthDate()),
+                user.getAddress(), user.getPhoneNumber())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Mono<UserDto> findById(Long id) {
+        return databaseClient.sql(USER_DTO_SELECT + "where id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toDto)
+                .one();
+    }
+
+    /**
+     * Same contract as {@code UserRepository.updateUser}: one statement that overwrites every column and bumps the
+     * version, matching only while the row still has {@code version} when one is given. Returns the rows matched;
+     * since the version always changes, matched and changed rows are the same.
+     */
+    public Mono<Long> update(UpdateUserRequest user, Long version) {
+        var sql = "update users set email = :email, first_name = :firstName, last_name = :lastName, "
+                + "birth_date = :birthDate, address = :address, phone_number = :phoneNumber, version = version + 1 "
+                + "where id = :id" + (version == null ? "" : " and version = :version");
+        var spec = bindNullable(databaseClient.sql(sql)
+                        .bind("id", user.getId())
+                        .bind("email", user.getEmail())
+                        .bind("firstName", user.getFirstName())
+                        .bind("lastName", user.getLastName())
+                        .bind("birthDate", user.getBirthDate()),
+                user.getAddress(), user.getPhoneNumber());
+        if (version != null) {
+            spec = spec.bind("version", version);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("delete from users where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Records the deletion for the changes feed; call it in the transaction that deletes the user.
+     */
+    public Mono<Long> insertTombstone(Long id) {
+        return databaseClient.sql("insert into user_tombstones (user_id) values (:id)")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Appends a change event to the outbox, as {@code UserRepository.insertOutboxEvent} does; call it in the
+     * transaction that makes the change.
+     */
+    public Mono<Long> insertOutboxEvent(Long userId, UserEventType type) {
+        return databaseClient.sql("insert into user_outbox (user_id, type, version) "
+                        + "values (:userId, :type, (select version from users where id = :userId))")
+                .bind("userId", userId)
+                .bind("type", type.name())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Flux<UserDto> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        return databaseClient.sql(USER_DTO_SELECT + BIRTH_DATE_RANGE + ORDER)
+                .bind("from", from)
+                .bind("to", to)
+                .map(ReactiveUserRepository::toDto)
+                .all();
+    }
+
+    public Flux<UserDto> findFirstPageByBirthDateBetween(LocalDate from, LocalDate to, int limit) {
+        return databaseClient.sql(USER_DTO_SELECT + BIRTH_DATE_RANGE + ORDER + " limit :limit")
+                .bind("from", from)
+                .bind("to", to)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toDto)
+                .all();
+    }
+
+    public Flux<UserDto> findNextPageByBirthDateBetween(LocalDate from, LocalDate to, LocalDate lastBirthDate,
+                                                        Long lastId, int limit) {
+        return databaseClient.sql(USER_DTO_SELECT + BIRTH_DATE_RANGE + "and birth_date >= :lastBirthDate "
+                        + "and (birth_date > :lastBirthDate or id > :lastId) " + ORDER + " limit :limit")
+                .bind("from", from)
+                .bind("to", to)
+                .bind("lastBirthDate", lastBirthDate)
+                .bind("lastId", lastId)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Rows are fetched in batches and emitted only as fast as the subscriber requests them.
+     */
+    public Flux<UserDto> streamByBirthDateBetween(LocalDate from, LocalDate to) {
+        return databaseClient.sql(USER_DTO_SELECT + BIRTH_DATE_RANGE + ORDER)
+                .bind("from", from)
+                .bind("to", to)
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(ReactiveUserRepository::toDto)
+                .all();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String address, String phoneNumber) {
+        spec = address == null ? spec.bindNull("address", String.class) : spec.bind("address", address);
+        return phoneNumber == null ? spec.bindNull("phoneNumber", String.class) : spec.bind("phoneNumber", phoneNumber);
+    }
+
+    private static UserDto toDto(Readable row) {
+        return new UserDto(row.get("id", Long.class), row.get("email", String.class),
+                row.get("first_name", String.class), row.get("last_name", String.class),
+                row.get("birth_date", LocalDate.class), row.get("address", String.class),
+                row.get("phone_number", String.class), row.get("version", Long.class));
+    }
+}
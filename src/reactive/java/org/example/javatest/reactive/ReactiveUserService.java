@@ -0,0 +1,217 @@
+package org.example.javatest.reactive;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.request.CreateUserRequest;
+import org.example.javatest.dto.request.UpdateUserRequest;
+import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.example.javatest.dto.response.UserEventType;
+import org.example.javatest.exception.AgeLessEighteenException;
+import org.example.javatest.exception.InvalidDateRangeException;
+import org.example.javatest.exception.InvalidPageRequestException;
+import org.example.javatest.exception.UserExistException;
+import org.example.javatest.exception.UserNotFoundException;
+import org.example.javatest.exception.UserVersionConflictException;
+import org.example.javatest.pagination.BirthDateCursor;
+import org.example.javatest.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Reactive counterpart of {@link UserService} for single-user operations and birth-date range reads, with the same
+ * validation, errors and metrics. Nothing here blocks: the email-uniqueness check is a query on the event loop and
+ * the unique constraint still decides races.
+ */
+@JBossLog
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    @Value("${user.registration.min-age}")
+    private int minAge;
+    @Value("${user.search.page-size.default:100}")
+    private int defaultPageSize;
+    @Value("${user.search.page-size.max:1000}")
+    private int maxPageSize;
+
+    @Transactional
+    public Mono<Void> createUser(CreateUserRequest createUserRequest) {
+        return timed("createUser", Mono.defer(() -> {
+            log.debug("Attempting to create user");
+            validateAge(createUserRequest.getBirthDate());
+            return userRepository.existsByEmail(createUserRequest.getEmail());
+        }).flatMap(exists -> {
+            if (exists) {
+                return Mono.error(userExists());
+            }
+            return userRepository.insert(createUserRequest);
+        }).onErrorMap(DataIntegrityViolationException.class, e -> userExists())
+                .flatMap(id -> userRepository.insertOutboxEvent(id, UserEventType.CREATED).thenReturn(id))
+                .doOnNext(id -> log.infof("User created successfully: %d", id))
+                .then());
+    }
+
+    public Mono<UserDto> findUserById(Long id) {
+        return timed("findUserById", userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User with id: " + id + " not found"))));
+    }
+
+    /**
+     * Same contract as {@link UserService#updateUser}: one statement, and a second one only when it matched nothing
+     * and an {@code expectedVersion} was given. Completes with the new version, or empty without one.
+     */
+    @Transactional
+    public Mono<Long> updateUser(UpdateUserRequest userRequest, Long expectedVersion) {
+        return timed("updateUser", Mono.defer(() -> {
+            log.debugf("Attempting to update user: %d", userRequest.getId());
+            validateAge(userRequest.getBirthDate());
+            return userRepository.update(userRequest, expectedVersion);
+        }).onErrorMap(DataIntegrityViolationException.class, e -> userExists())
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        return userRepository.insertOutboxEvent(userRequest.getId(), UserEventType.UPDATED)
+                                .doOnNext(ignored -> log.infof("User updated successfully: %d", userRequest.getId()))
+                                .flatMap(ignored -> Mono.justOrEmpty(expectedVersion == null ? null : expectedVersion + 1));
+                    }
+                    var exists = expectedVersion == null ? Mono.just(false) : userRepository.existsById(userRequest.getId());
+                    return exists.flatMap(found -> Mono.error(found
+                            ? new UserVersionConflictException("User with id: " + userRequest.getId()
+                                    + " was modified concurrently; reload it and retry.")
+                            : new UserNotFoundException("User with id: " + userRequest.getId() + " not found")));
+                }));
+    }
+
+    @Transactional
+    public Mono<Void> deleteUserById(Long id) {
+        return timed("deleteUserById", userRepository.deleteById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.<Void>error(new UserNotFoundException("User with id: " + id + " not found"))
+                        : userRepository.insertTombstone(id)
+                                .then(userRepository.insertOutboxEvent(id, UserEventType.DELETED))
+                                .then())
+                .doOnSuccess(ignored -> log.infof("User deleted successfully: %d", id)));
+    }
+
+    public Mono<AllUserByDateRangeResponse> findUsersByBirthDateRange(LocalDate from, LocalDate to) {
+        return timed("findUsersByBirthDateRange", Mono.defer(() -> {
+            validateDateRange(from, to);
+            return userRepository.findByBirthDateBetween(from, to).collectList();
+        }).map(users -> {
+            log.infof("Found %d users", users.size());
+            recordSearchResults("list", users.size());
+            return AllUserByDateRangeResponse.builder()
+                    .users(users)
+                    .build();
+        }));
+    }
+
+    public Mono<AllUserByDateRangeResponse> findUsersByBirthDateRange(LocalDate from, LocalDate to, String cursor,
+                                                                      Integer size) {
+        return timed("findUsersByBirthDateRange", Mono.defer(() -> {
+            validateDateRange(from, to);
+            int pageSize = resolvePageSize(size);
+            var page = cursor == null
+                    ? userRepository.findFirstPageByBirthDateBetween(from, to, pageSize + 1)
+                    : findNextPage(from, to, BirthDateCursor.decode(cursor), pageSize + 1);
+            return page.collectList().map(users -> {
+                String nextCursor = null;
+                if (users.size() > pageSize) {
+                    users = users.subList(0, pageSize);
+                    var last = users.get(pageSize - 1);
+                    nextCursor = new BirthDateCursor(last.getBirthDate(), last.getId()).encode();
+                }
+                log.infof("Found %d users", users.size());
+                recordSearchResults("page", users.size());
+                return AllUserByDateRangeResponse.builder()
+                        .users(users)
+                        .nextCursor(nextCursor)
+                        .build();
+            });
+        }));
+    }
+
+    /**
+     * Emits users as the subscriber requests them, so a slow client holds back the database read instead of
+     * buffering the range in memory.
+     */
+    public Flux<UserDto> streamUsersByBirthDateRange(LocalDate from, LocalDate to) {
+        return Flux.defer(() -> {
+            validateDateRange(from, to);
+            log.debugf("Streaming users between dates: %s and %s", from, to);
+            long[] count = {0};
+            return userRepository.streamByBirthDateBetween(from, to)
+                    .doOnNext(user -> count[0]++)
+                    .doFinally(signal -> recordSearchResults("stream", count[0]));
+        });
+    }
+
+    public void validateDateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new InvalidDateRangeException("Both 'from' and 'to' dates must be provided.");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidDateRangeException("'From' date must not be after 'To' date.");
+        }
+    }
+
+    private Flux<UserDto> findNextPage(LocalDate from, LocalDate to, BirthDateCursor cursor, int limit) {
+        return userRepository.findNextPageByBirthDateBetween(from, to, cursor.getBirthDate(), cursor.getId(), limit);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new InvalidPageRequestException("Page size must be at least 1.");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private void validateAge(LocalDate birthDate) {
+        if (Period.between(birthDate, LocalDate.now()).getYears() < minAge) {
+            log.debugf("User is too young to register. Required age: %d", minAge);
+            throw new AgeLessEighteenException("User must be at least " + minAge + " years old to register.");
+        }
+    }
+
+    private static UserExistException userExists() {
+        return new UserExistException("User with this email already exists.");
+    }
+
+    private void recordSearchResults(String query, long count) {
+        meterRegistry.summary(UserService.SEARCH_RESULTS, "query", query).record(count);
+    }
+
+    /**
+     * Records {@link UserService#OPERATION_TIMER} with the tags {@code @Timed} gives the servlet service, measured
+     * from subscription to completion.
+     */
+    private <T> Mono<T> timed(String method, Mono<T> operation) {
+        return Mono.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+            return operation
+                    .doOnSuccess(value -> stop(sample, method, "none"))
+                    .doOnError(e -> stop(sample, method, e.getClass().getSimpleName()));
+        });
+    }
+
+    private void stop(Timer.Sample sample, String method, String exception) {
+        sample.stop(meterRegistry.timer(UserService.OPERATION_TIMER, "class", ReactiveUserService.class.getName(),
+                "method", method, "exception", exception));
+    }
+}
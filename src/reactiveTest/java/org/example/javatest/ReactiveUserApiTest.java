@@ -0,0 +1,223 @@
+package org.example.javatest;
+
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.example.javatest.reactive.ReactiveJavaTestApplication;
+import org.example.javatest.reactive.ReactiveUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The reactive build's {@code /users} API end to end, on Netty and an in-memory database over R2DBC.
+ */
+@SpringBootTest(classes = ReactiveJavaTestApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password=",
+                "spring.flyway.url=jdbc:h2:mem:reactive;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+                "spring.flyway.user=sa",
+                "spring.flyway.password=",
+                "user.registration.min-age=18",
+                "logging.level.io.r2dbc.h2.H2Connection=ERROR"
+        })
+class ReactiveUserApiTest {
+
+    private static final LocalDate FROM = LocalDate.of(1980, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2000, 1, 1);
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("delete from users").fetch().rowsUpdated().block();
+    }
+
+    @Test
+    void testCreateAndFindUser() {
+        create("john.doe@example.com", "1990-05-15").expectStatus().isCreated();
+
+        var id = idOf("john.doe@example.com");
+        client.get().uri("/users/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("john.doe@example.com")
+                .jsonPath("$.birthDate").isEqualTo("1990-05-15");
+    }
+
+    @Test
+    void testCreateDuplicateEmailIsConflict() {
+        create("john.doe@example.com", "1990-05-15").expectStatus().isCreated();
+
+        create("john.doe@example.com", "1991-01-01")
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(409)
+                .jsonPath("$.message").isEqualTo("User with this email already exists.")
+                .jsonPath("$.path").isEqualTo("uri=/users");
+    }
+
+    @Test
+    void testCreateRejectsUnderAgeAndInvalidBody() {
+        create("young@example.com", LocalDate.now().minusYears(10).toString())
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("User must be at least 18 years old to register.");
+
+        client.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", "not-an-email", "birthDate", "1990-01-01"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testUpdateHonoursIfMatch() {
+        create("john.doe@example.com", "1990-05-15").expectStatus().isCreated();
+        var id = idOf("john.doe@example.com");
+
+        update(id, "john.smith@example.com", "\"0\"")
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+        update(id, "john.doe@example.com", "\"0\"")
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        update(id, "john.doe@example.com", null)
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.ETAG);
+        update(id + 1000, "ghost@example.com", null)
+                .expectStatus().isNotFound();
+
+        client.get().uri("/users/{id}", id)
+                .exchange()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"");
+    }
+
+    @Test
+    void testDeleteUser() {
+        create("john.doe@example.com", "1990-05-15").expectStatus().isCreated();
+        var id = idOf("john.doe@example.com");
+
+        client.delete().uri("/users/{id}", id).exchange().expectStatus().isOk();
+        client.delete().uri("/users/{id}", id).exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("User with id: " + id + " not found");
+    }
+
+    @Test
+    void testRangePagesFollowCursor() {
+        create("a@example.com", "1990-01-01").expectStatus().isCreated();
+        create("b@example.com", "1991-01-01").expectStatus().isCreated();
+        create("c@example.com", "1992-01-01").expectStatus().isCreated();
+
+        var first = page(null);
+        assertEquals(List.of("a@example.com", "b@example.com"), emails(first.getUsers()));
+        assertNotNull(first.getNextCursor());
+
+        var second = page(first.getNextCursor());
+        assertEquals(List.of("c@example.com"), emails(second.getUsers()));
+        assertNull(second.getNextCursor());
+
+        client.get().uri("/users/list/by-birth-date-range?from={from}&to={to}", TO, FROM)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testStreamEmitsOnDemand() {
+        create("a@example.com", "1990-01-01").expectStatus().isCreated();
+        create("b@example.com", "1991-01-01").expectStatus().isCreated();
+        create("c@example.com", "1992-01-01").expectStatus().isCreated();
+
+        var streamed = client.get().uri("/users/stream/by-birth-date-range?from={from}&to={to}", FROM, TO)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserDto.class)
+                .getResponseBody()
+                .map(UserDto::getEmail)
+                .collectList()
+                .block();
+        assertEquals(List.of("a@example.com", "b@example.com", "c@example.com"), streamed);
+
+        StepVerifier.create(userService.streamUsersByBirthDateRange(FROM, TO), 1)
+                .expectNextMatches(user -> user.getEmail().equals("a@example.com"))
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    private WebTestClient.ResponseSpec create(String email, String birthDate) {
+        return client.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", email, "firstName", "John", "lastName", "Doe", "birthDate", birthDate))
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec update(Long id, String email, String ifMatch) {
+        var request = client.put().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON);
+        if (ifMatch != null) {
+            request = request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return request.bodyValue(Map.of("id", id, "email", email, "firstName", "John", "lastName", "Doe",
+                        "birthDate", "1990-05-15"))
+                .exchange();
+    }
+
+    private AllUserByDateRangeResponse page(String cursor) {
+        return client.get().uri(builder -> builder.path("/users/list/by-birth-date-range")
+                        .queryParam("from", FROM)
+                        .queryParam("to", TO)
+                        .queryParam("size", 2)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(AllUserByDateRangeResponse.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private Long idOf(String email) {
+        return databaseClient.sql("select id from users where email = :email")
+                .bind("email", email)
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .block();
+    }
+
+    private static List<String> emails(List<UserDto> users) {
+        return users.stream().map(UserDto::getEmail).toList();
+    }
+}
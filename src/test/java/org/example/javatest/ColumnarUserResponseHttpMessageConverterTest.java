@@ -0,0 +1,48 @@
+package org.example.javatest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.javatest.converter.ColumnarUserResponseHttpMessageConverter;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarUserResponseHttpMessageConverterTest {
+
+    private final ColumnarUserResponseHttpMessageConverter converter =
+            new ColumnarUserResponseHttpMessageConverter(new ObjectMapper().getFactory());
+
+    @Test
+    void testWritesOneArrayPerField() throws Exception {
+        var response = new AllUserByDateRangeResponse(List.of(
+                new UserDto(1L, "a@example.com", "John", "Doe", LocalDate.of(1990, 1, 1), "1 Main Street", null),
+                new UserDto(2L, "b@example.com", "Jane", "Roe", LocalDate.of(1991, 2, 3), null, "+15550000002")),
+                "next");
+        var output = new MockHttpOutputMessage();
+
+        converter.write(response, ColumnarUserResponseHttpMessageConverter.MEDIA_TYPE, output);
+
+        assertEquals("{\"count\":2,\"id\":[1,2],\"email\":[\"a@example.com\",\"b@example.com\"],"
+                        + "\"firstName\":[\"John\",\"Jane\"],\"lastName\":[\"Doe\",\"Roe\"],"
+                        + "\"birthDate\":[\"1990-01-01\",\"1991-02-03\"],\"address\":[\"1 Main Street\",null],"
+                        + "\"phoneNumber\":[null,\"+15550000002\"],\"version\":[null,null],\"nextCursor\":\"next\"}",
+                output.getBodyAsString());
+        assertEquals(ColumnarUserResponseHttpMessageConverter.MEDIA_TYPE, output.getHeaders().getContentType());
+    }
+
+    @Test
+    void testOnlyWritesUserRangeResponses() {
+        assertTrue(converter.canWrite(AllUserByDateRangeResponse.class, ColumnarUserResponseHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canWrite(UserDto.class, ColumnarUserResponseHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canWrite(AllUserByDateRangeResponse.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(AllUserByDateRangeResponse.class, ColumnarUserResponseHttpMessageConverter.MEDIA_TYPE));
+    }
+}
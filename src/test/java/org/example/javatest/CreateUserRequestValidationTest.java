@@ -96,4 +96,19 @@ class CreateUserRequestValidationTest {
         assertEquals(1, violations.size());
         assertEquals("Birth date must be in the past", violations.iterator().next().getMessage());
     }
+
+    @Test
+    void testFieldLongerThanItsColumn() {
+        var request = new CreateUserRequest();
+        request.setEmail("test@example.com");
+        request.setFirstName("John");
+        request.setLastName("Doe");
+        request.setBirthDate(LocalDate.of(1990, 5, 15));
+        request.setAddress("a".repeat(256));
+
+        var violations = validator.validate(request);
+
+        assertEquals(1, violations.size());
+        assertEquals("Address must be at most 255 characters", violations.iterator().next().getMessage());
+    }
 }
@@ -0,0 +1,93 @@
+package org.example.javatest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.cache.BloomFilter;
+import org.example.javatest.cache.EmailExistenceIndex;
+import org.example.javatest.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class EmailExistenceIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailExistenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new EmailExistenceIndex(userRepository, transactionManager, 1000, 0.01, true);
+    }
+
+    @Test
+    void testBloomFilterHasNoFalseNegatives() {
+        var filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i + "@example.com")));
+        long falsePositives = IntStream.range(10_000, 20_000)
+                .filter(i -> filter.mightContain("user" + i + "@example.com"))
+                .count();
+        assertTrue(falsePositives < 300, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void testEverythingIsPossibleBeforeFirstBuild() {
+        assertFalse(index.isReady());
+        assertTrue(index.mightContain("unknown@example.com"));
+    }
+
+    @Test
+    void testRebuildLoadsEmailsCaseInsensitively() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("John@Example.com", "jane@example.com"));
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertTrue(index.mightContain("john@example.com"));
+        assertTrue(index.mightContain("JANE@example.com"));
+        assertFalse(index.mightContain("nobody@example.com"));
+    }
+
+    @Test
+    void testAddedEmailsAreVisibleAfterRebuild() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        index.rebuild();
+
+        index.addAfterCommit("new@example.com");
+
+        assertTrue(index.mightContain("new@example.com"));
+    }
+
+    @Test
+    void testCountersAreExposed() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("taken@example.com"));
+        index.rebuild();
+        var registry = new SimpleMeterRegistry();
+        index.bindTo(registry);
+
+        index.mightContain("free@example.com");
+        index.recordLookup(true);
+        index.recordLookup(false);
+
+        assertEquals(1.0, registry.get("user.email.index.lookups").tag("result", "definite_miss").functionCounter().count());
+        assertEquals(1.0, registry.get("user.email.index.lookups").tag("result", "confirmed_hit").functionCounter().count());
+        assertEquals(1.0, registry.get("user.email.index.lookups").tag("result", "false_positive").functionCounter().count());
+        assertEquals(1.0, registry.get("user.email.index.ready").gauge().value());
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.javatest;
+
+import org.example.javatest.validation.EmailSyntax;
+import org.example.javatest.validation.EmailValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailValidatorTest {
+
+    private static final Pattern REFERENCE =
+            Pattern.compile("^[\\w.-]+@[A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)*(\\.[A-Za-z]{2,})$");
+    private static final String ALPHABET = "aZ09_.-@.@x-.\n é+ ";
+
+    private final EmailValidator emailValidator = new EmailValidator();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "john.doe@example.com", "a@b.co", "_-.@x.yz", "first_last@mail.sub.example.co.uk",
+            "user@1-2.example.ORG", "x@-.ab", "USER@EXAMPLE.COM"
+    })
+    void acceptsValidEmails(String email) {
+        assertTrue(emailValidator.isValid(email, null));
+        assertMatchesReference(email);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "", "@example.com", "john", "john@", "john@example", "john@example.c", "john@example.c1",
+            "john@.example.com", "john@example..com", "john@example.com.", "john@@example.com",
+            "jo hn@example.com", "john@exa_mple.com", "jöhn@example.com", "john@example.com\n",
+            "john+tag@example.com", "a@b@c.com"
+    })
+    void rejectsInvalidEmails(String email) {
+        assertFalse(emailValidator.isValid(email, null));
+        assertMatchesReference(email);
+    }
+
+    @Test
+    void rejectsNull() {
+        assertFalse(emailValidator.isValid(null, null));
+    }
+
+    @Test
+    void agreesWithReferencePatternOnRandomInput() {
+        var random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            var email = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                email.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertMatchesReference(email.toString());
+        }
+    }
+
+    @Test
+    void agreesWithReferencePatternOnMutatedEmails() {
+        var random = new Random(7);
+        var seed = "first.last@mail.example.com";
+        for (int i = 0; i < 100_000; i++) {
+            var email = new StringBuilder(seed);
+            int mutations = 1 + random.nextInt(3);
+            for (int j = 0; j < mutations && !email.isEmpty(); j++) {
+                int position = random.nextInt(email.length());
+                char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                switch (random.nextInt(3)) {
+                    case 0 -> email.setCharAt(position, c);
+                    case 1 -> email.insert(position, c);
+                    default -> email.deleteCharAt(position);
+                }
+            }
+            assertMatchesReference(email.toString());
+        }
+    }
+
+    private static void assertMatchesReference(String email) {
+        assertEquals(REFERENCE.matcher(email).matches(), EmailSyntax.isValid(email), () -> "Disagreement on: " + email);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.javatest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.dto.error.ApiError;
+import org.example.javatest.exception.UserExistException;
+import org.example.javatest.exception.UserNotFoundException;
+import org.example.javatest.exhandler.ErrorBodyEncoder;
+import org.example.javatest.exhandler.ExpectedErrorLog;
+import org.example.javatest.exhandler.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(meterRegistry,
+            new ExpectedErrorLog(Duration.ofSeconds(10)));
+    private final ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("POST", "/users"));
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void testErrorsAreCountedPerExceptionAndStatus() {
+        var response = handler.handleUserExistException(new UserExistException("exists"), request);
+        handler.handleUserExistException(new UserExistException("exists"), request);
+        handler.handleUserNotFoundException(new UserNotFoundException("missing"), request);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(2, meterRegistry.get(GlobalExceptionHandler.ERROR_COUNTER)
+                .tags("exception", "UserExistException", "status", "409").counter().count());
+        assertEquals(1, meterRegistry.get(GlobalExceptionHandler.ERROR_COUNTER)
+                .tags("exception", "UserNotFoundException", "status", "404").counter().count());
+    }
+
+    @Test
+    void testBusinessErrorBodyIsApiErrorJson() throws Exception {
+        var response = handler.handleUserNotFoundException(new UserNotFoundException("User with id 7 not found"), request);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        var error = objectMapper.readValue(response.getBody(), ApiError.class);
+        assertEquals(404, error.getStatus());
+        assertEquals("Not Found", error.getError());
+        assertEquals("User with id 7 not found", error.getMessage());
+        assertEquals("uri=/users", error.getPath());
+    }
+
+    @Test
+    void testEncodedBodyMatchesJacksonOutput() throws Exception {
+        var timestamp = Instant.parse("2024-05-01T10:15:30.123456Z");
+        var message = "Email \"ä@x.com\"\tis taken\\ \u0001";
+        var expected = objectMapper.writeValueAsString(new ApiError(409, "Conflict", message, timestamp, "uri=/users"));
+
+        assertEquals(expected, new String(ErrorBodyEncoder.encode(HttpStatus.CONFLICT, message, "uri=/users",
+                timestamp), StandardCharsets.UTF_8));
+        assertEquals(objectMapper.writeValueAsString(new ApiError(400, "Bad Request", null, timestamp, "uri=/")),
+                new String(ErrorBodyEncoder.encode(HttpStatus.BAD_REQUEST, null, "uri=/", timestamp),
+                        StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testBusinessExceptionsCaptureNoStackTrace() {
+        var ex = new UserExistException("exists");
+        ex.addSuppressed(new IllegalStateException());
+
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals(0, ex.getSuppressed().length);
+        assertNull(ex.getCause());
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.javatest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.javatest.datasource.HikariPoolSizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HikariPoolSizerTest {
+
+    private final HikariPoolSizer sizer = new HikariPoolSizer(4, 1, 0, Map.of("primary", 0, "replica", 25));
+
+    @Test
+    void recommendedSizeFollowsCoresAndSpindles() {
+        assertEquals(9, HikariPoolSizer.recommendedSize(4, 1, 0));
+        assertEquals(3, HikariPoolSizer.recommendedSize(0, 1, 0));
+    }
+
+    @Test
+    void recommendedSizeIsCappedByExpectedConcurrency() {
+        assertEquals(5, HikariPoolSizer.recommendedSize(4, 1, 5));
+        assertEquals(9, HikariPoolSizer.recommendedSize(4, 1, 100));
+    }
+
+    @Test
+    void unsizedPoolGetsRecommendedSize() {
+        assertEquals(9, sized("primary").getMaximumPoolSize());
+    }
+
+    @Test
+    void configuredSizeForPoolNameWins() {
+        assertEquals(25, sized("replica").getMaximumPoolSize());
+    }
+
+    @Test
+    void explicitlySizedPoolIsLeftAlone() {
+        var pool = new HikariDataSource();
+        pool.setPoolName("primary");
+        pool.setMaximumPoolSize(3);
+        sizer.postProcessAfterInitialization(pool, "dataSource");
+        assertEquals(3, pool.getMaximumPoolSize());
+    }
+
+    private HikariDataSource sized(String poolName) {
+        var pool = new HikariDataSource();
+        pool.setPoolName(poolName);
+        sizer.postProcessAfterInitialization(pool, "dataSource");
+        return pool;
+    }
+}
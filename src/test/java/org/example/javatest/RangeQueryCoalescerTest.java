@@ -0,0 +1,193 @@
+package org.example.javatest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.cache.RangeQueryCoalescer;
+import org.example.javatest.datasource.DataSourceRoute;
+import org.example.javatest.datasource.ReadYourWrites;
+import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.example.javatest.exception.InvalidDateRangeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RangeQueryCoalescerTest {
+
+    private static final RangeQueryCoalescer.RangeQuery QUERY =
+            new RangeQueryCoalescer.RangeQuery(LocalDate.of(1980, 1, 1), LocalDate.of(2000, 1, 1), null, null);
+    private static final int CALLERS = 8;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RangeQueryCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RangeQueryCoalescer(true);
+        coalescer.bindTo(meterRegistry);
+    }
+
+    @Test
+    void testConcurrentIdenticalQueriesShareOneLoad() throws Exception {
+        var loads = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var response = new AllUserByDateRangeResponse(new ArrayList<>());
+
+        var results = callConcurrently(CALLERS, release, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return response;
+        });
+
+        assertEquals(1, loads.get());
+        for (var result : results) {
+            assertSame(response, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, count("executed"));
+        assertEquals(CALLERS - 1, count("joined"));
+        assertEquals(0, meterRegistry.get("user.search.coalescing.in.flight").gauge().value());
+    }
+
+    @Test
+    void testFinishedQueryIsNotReused() {
+        var first = coalescer.coalesce(QUERY, () -> new AllUserByDateRangeResponse(new ArrayList<>()));
+        var second = coalescer.coalesce(QUERY, () -> new AllUserByDateRangeResponse(new ArrayList<>()));
+
+        assertNotSame(first, second);
+        assertEquals(2, count("executed"));
+        assertEquals(0, count("joined"));
+    }
+
+    @Test
+    void testDifferentQueriesRunSeparately() {
+        var page = new RangeQueryCoalescer.RangeQuery(QUERY.from(), QUERY.to(), null, 10);
+        var loads = new AtomicInteger();
+
+        coalescer.coalesce(QUERY, () -> coalescer.coalesce(page, () -> {
+            loads.incrementAndGet();
+            return new AllUserByDateRangeResponse(new ArrayList<>());
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals(2, count("executed"));
+    }
+
+    @Test
+    void testJoinedCallersGetTheLoadersException() throws Exception {
+        var release = new CountDownLatch(1);
+        var failure = new InvalidDateRangeException("'From' date must not be after 'To' date.");
+
+        var results = callConcurrently(CALLERS, release, () -> {
+            await(release);
+            throw failure;
+        });
+
+        for (var result : results) {
+            var thrown = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, thrown.getCause());
+        }
+        var recovered = new AllUserByDateRangeResponse(new ArrayList<>());
+        assertSame(recovered, coalescer.coalesce(QUERY, () -> recovered));
+    }
+
+    @Test
+    void testCallerThatWroteAfterTheQueryStartedDoesNotJoin() throws Exception {
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var leader = executor.submit(() -> coalescer.coalesce(QUERY, () -> {
+                started.countDown();
+                await(release);
+                return new AllUserByDateRangeResponse(new ArrayList<>());
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // The caller's write committed after the leader's query started; its request carries the write.
+            var afterWrite = new AllUserByDateRangeResponse(new ArrayList<>());
+            ReadYourWrites.begin(true, written -> {
+            });
+            try {
+                assertSame(afterWrite, coalescer.coalesce(QUERY, () -> afterWrite));
+            } finally {
+                ReadYourWrites.end();
+            }
+            var onPrimary = new AllUserByDateRangeResponse(new ArrayList<>());
+            assertSame(onPrimary, DataSourceRoute.onPrimary(() -> coalescer.coalesce(QUERY, () -> onPrimary)));
+
+            release.countDown();
+            assertNotSame(afterWrite, leader.get(5, TimeUnit.SECONDS));
+            assertEquals(1, count("executed"));
+            assertEquals(2, count("bypassed"));
+            assertEquals(0, count("joined"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDisabledCoalescerAlwaysLoads() {
+        var disabled = new RangeQueryCoalescer(false);
+        var loads = new AtomicInteger();
+
+        disabled.coalesce(QUERY, () -> disabled.coalesce(QUERY, () -> {
+            loads.incrementAndGet();
+            return new AllUserByDateRangeResponse(new ArrayList<>());
+        }));
+
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Starts {@code callers} identical queries, waits until all but the loader are waiting on it, then releases
+     * the loader.
+     */
+    private List<Future<AllUserByDateRangeResponse>> callConcurrently(int callers, CountDownLatch release,
+                                                                      Supplier<AllUserByDateRangeResponse> load)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            var results = new ArrayList<Future<AllUserByDateRangeResponse>>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> coalescer.coalesce(QUERY, load)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (count("joined") < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("user.search.coalescing").tag("outcome", outcome).functionCounter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.javatest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.javatest.datasource.DataSourceRoute;
+import org.example.javatest.datasource.ReadYourWritesFilter;
+import org.example.javatest.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Two in-memory databases stand in for the primary and the replica; each knows its own name. Work that belongs to a
+ * client runs as a request through {@link ReadYourWritesFilter}.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String WHO_AM_I = "select name from node";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private ReadYourWritesFilter filter;
+
+    private void setUp(Duration readYourWritesWindow) {
+        var routing = new ReplicaRoutingDataSource(node("primary"), node("replica"), new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+        var dataSource = new LazyConnectionDataSourceProxy(routing);
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        filter = new ReadYourWritesFilter(readYourWritesWindow);
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        setUp(Duration.ofSeconds(2));
+
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void testReadWriteTransactionAndNoTransactionUsePrimary() {
+        setUp(Duration.ofSeconds(2));
+
+        assertEquals("primary", readWrite.execute(status -> whoAmI()));
+        assertEquals("primary", whoAmI());
+    }
+
+    @Test
+    void testReadsStayOnPrimaryAfterWrite() throws Exception {
+        setUp(Duration.ofMinutes(1));
+        var reads = new ArrayList<String>();
+
+        var response = request(null, () -> {
+            reads.add(readOnly.execute(status -> whoAmI()));
+            write();
+            reads.add(readOnly.execute(status -> whoAmI()));
+        });
+
+        assertEquals(List.of("replica", "primary"), reads);
+        assertEquals("primary", readAs(response.getCookie(ReadYourWritesFilter.COOKIE)));
+    }
+
+    @Test
+    void testCookieIsAddedOnceAndKeepsOtherCookies() throws Exception {
+        setUp(Duration.ofMinutes(1));
+        var response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> {
+            ((HttpServletResponse) res).addCookie(new Cookie("session", "abc"));
+            write();
+            write();
+            res.getOutputStream().write('x');
+        });
+
+        var cookies = response.getHeaders(HttpHeaders.SET_COOKIE);
+        assertEquals(2, cookies.size());
+        assertEquals(1, cookies.stream().filter(cookie -> cookie.startsWith(ReadYourWritesFilter.COOKIE + "=")).count());
+        assertNotNull(response.getCookie("session"));
+    }
+
+    @Test
+    void testOneClientsWriteDoesNotPinAnotherClientsReads() throws Exception {
+        setUp(Duration.ofMinutes(1));
+        var writer = request(null, this::write).getCookie(ReadYourWritesFilter.COOKIE);
+
+        assertNotNull(writer);
+        assertEquals("replica", readAs(null));
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+        assertEquals("primary", readAs(writer));
+    }
+
+    @Test
+    void testReadsReturnToReplicaAfterWindow() throws Exception {
+        setUp(Duration.ofSeconds(2));
+        var stale = new Cookie(ReadYourWritesFilter.COOKIE,
+                Long.toString(System.currentTimeMillis() - Duration.ofSeconds(3).toMillis()));
+
+        assertEquals("replica", readAs(stale));
+    }
+
+    @Test
+    void testZeroWindowDisablesTracking() throws Exception {
+        setUp(Duration.ZERO);
+
+        var response = request(null, this::write);
+
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE));
+        assertEquals("replica", readAs(new Cookie(ReadYourWritesFilter.COOKIE,
+                Long.toString(System.currentTimeMillis()))));
+    }
+
+    @Test
+    void testRolledBackWriteDoesNotPinReads() throws Exception {
+        setUp(Duration.ofMinutes(1));
+        var reads = new ArrayList<String>();
+
+        var response = request(null, () -> {
+            readWrite.executeWithoutResult(status -> {
+                jdbcTemplate.update("update node set hits = hits + 1");
+                status.setRollbackOnly();
+            });
+            reads.add(readOnly.execute(status -> whoAmI()));
+        });
+
+        assertEquals(List.of("replica"), reads);
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE));
+    }
+
+    @Test
+    void testOnPrimaryOverridesReadOnlyRouting() {
+        setUp(Duration.ofSeconds(2));
+
+        assertEquals("primary", DataSourceRoute.onPrimary(() -> readOnly.execute(status -> whoAmI())));
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+    }
+
+    private MockHttpServletResponse request(Cookie cookie, Runnable work) throws Exception {
+        var request = new MockHttpServletRequest();
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> work.run());
+        return response;
+    }
+
+    private String readAs(Cookie cookie) throws Exception {
+        var reads = new ArrayList<String>();
+        request(cookie, () -> reads.add(readOnly.execute(status -> whoAmI())));
+        return reads.get(0);
+    }
+
+    private void write() {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set hits = hits + 1"));
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject(WHO_AM_I, String.class);
+    }
+
+    private static DataSource node(String name) {
+        var dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        var jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists node (name varchar(16), hits int)");
+        jdbc.update("delete from node");
+        jdbc.update("insert into node values (?, 0)", name);
+        return dataSource;
+    }
+}
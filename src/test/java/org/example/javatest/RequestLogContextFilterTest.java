@@ -0,0 +1,45 @@
+package org.example.javatest;
+
+import org.example.javatest.logging.RequestLogContextFilter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestLogContextFilterTest {
+
+    private final RequestLogContextFilter filter = new RequestLogContextFilter();
+
+    @Test
+    void testRequestFieldsAreInMdcDuringRequestOnly() throws Exception {
+        var request = new MockHttpServletRequest("DELETE", "/users/7");
+        request.addHeader(RequestLogContextFilter.REQUEST_ID_HEADER, "abc-123");
+        Map<String, String> seen = new HashMap<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> seen.putAll(MDC.getCopyOfContextMap()));
+
+        assertEquals("DELETE", seen.get(RequestLogContextFilter.METHOD));
+        assertEquals("/users/7", seen.get(RequestLogContextFilter.PATH));
+        assertEquals("abc-123", seen.get(RequestLogContextFilter.REQUEST_ID));
+        assertNull(MDC.get(RequestLogContextFilter.METHOD));
+        assertNull(MDC.get(RequestLogContextFilter.PATH));
+        assertNull(MDC.get(RequestLogContextFilter.REQUEST_ID));
+    }
+
+    @Test
+    void testRequestIdIsOmittedWhenHeaderIsMissing() throws Exception {
+        Map<String, String> seen = new HashMap<>();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/users/list/by-birth-date-range"), new MockHttpServletResponse(),
+                (req, res) -> seen.putAll(MDC.getCopyOfContextMap()));
+
+        assertEquals("GET", seen.get(RequestLogContextFilter.METHOD));
+        assertNull(seen.get(RequestLogContextFilter.REQUEST_ID));
+    }
+}
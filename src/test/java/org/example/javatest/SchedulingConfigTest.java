@@ -0,0 +1,76 @@
+package org.example.javatest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.cache.EmailExistenceIndex;
+import org.example.javatest.config.SchedulingConfig;
+import org.example.javatest.events.UserEventPublisher;
+import org.example.javatest.events.UserEventStream;
+import org.example.javatest.repository.UserOutboxRepository;
+import org.example.javatest.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchedulingConfigTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserOutboxRepository outboxRepository = mock(UserOutboxRepository.class);
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> {
+                context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+                try {
+                    context.getEnvironment().getPropertySources()
+                            .addLast(new ResourcePropertySource("classpath:application.properties"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })
+            .withConfiguration(AutoConfigurations.of(TaskSchedulingAutoConfiguration.class))
+            .withBean(UserRepository.class, () -> userRepository)
+            .withBean(UserOutboxRepository.class, () -> outboxRepository)
+            .withBean(UserEventStream.class, () -> mock(UserEventStream.class))
+            .withBean(PlatformTransactionManager.class, () -> mock(PlatformTransactionManager.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withUserConfiguration(SchedulingConfig.class, EmailExistenceIndex.class, UserEventPublisher.class);
+
+    @Test
+    void testSlowIndexRebuildDoesNotDelayPublishing() {
+        var rebuildStarted = new CountDownLatch(1);
+        var releaseRebuild = new CountDownLatch(1);
+        when(userRepository.streamAllEmails()).thenAnswer(invocation -> {
+            rebuildStarted.countDown();
+            releaseRebuild.await();
+            return Stream.<String>empty();
+        });
+
+        contextRunner.run(context -> {
+            try {
+                assertTrue(rebuildStarted.await(5, TimeUnit.SECONDS));
+                verify(outboxRepository, timeout(5000).atLeast(5)).findAfter(anyLong(), any());
+            } finally {
+                releaseRebuild.countDown();
+            }
+        });
+    }
+}
@@ -114,4 +114,20 @@ class UpdateUserRequestValidationTest {
         assertEquals(1, violations.size());
         assertEquals("Birth date must be in the past", violations.iterator().next().getMessage());
     }
+
+    @Test
+    void testFieldLongerThanItsColumn() {
+        var request = new UpdateUserRequest();
+        request.setId(1L);
+        request.setEmail("test@example.com");
+        request.setFirstName("John");
+        request.setLastName("Doe");
+        request.setBirthDate(LocalDate.of(1990, 5, 15));
+        request.setAddress("a".repeat(256));
+
+        var violations = validator.validate(request);
+
+        assertEquals(1, violations.size());
+        assertEquals("Address must be at most 255 characters", violations.iterator().next().getMessage());
+    }
 }
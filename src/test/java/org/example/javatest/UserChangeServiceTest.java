@@ -0,0 +1,194 @@
+package org.example.javatest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.cache.EmailExistenceIndex;
+import org.example.javatest.dto.request.CreateUserRequest;
+import org.example.javatest.dto.request.UpdateUserRequest;
+import org.example.javatest.dto.response.ChangeType;
+import org.example.javatest.dto.response.UserChange;
+import org.example.javatest.dto.response.UserChangesResponse;
+import org.example.javatest.exception.ChangeTokenExpiredException;
+import org.example.javatest.exception.InvalidPageRequestException;
+import org.example.javatest.mapper.UserMapperImpl;
+import org.example.javatest.model.UserTombstone;
+import org.example.javatest.pagination.ChangeToken;
+import org.example.javatest.repository.UserRepository;
+import org.example.javatest.repository.UserTombstoneRepository;
+import org.example.javatest.service.UserChangeService;
+import org.example.javatest.service.UserLookupService;
+import org.example.javatest.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs without a test transaction, so every write commits with its own database timestamp as in production.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:changes;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "user.registration.min-age=18",
+        "user.email-index.enabled=false",
+        "user.changes.settle-time=0s"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserService.class, UserChangeService.class, UserLookupService.class, EmailExistenceIndex.class,
+        UserMapperImpl.class, UserChangeServiceTest.Config.class})
+class UserChangeServiceTest {
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new NoOpCacheManager();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserChangeService userChangeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+        tombstoneRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testFeedListsWritesAndDeletesInChangeOrder() {
+        var a = create("a@example.com");
+        var b = create("b@example.com");
+        var c = create("c@example.com");
+        userService.updateUser(new UpdateUserRequest(a, "a2@example.com", "John", "Doe",
+                LocalDate.of(1990, 5, 15), null, null), 0L);
+        userService.deleteUserById(b);
+
+        var response = userChangeService.findChangesSince(null, null);
+
+        assertEquals(List.of(c, a, b), ids(response));
+        assertEquals(List.of(ChangeType.UPSERTED, ChangeType.UPSERTED, ChangeType.DELETED), types(response));
+        assertEquals("a2@example.com", response.getChanges().get(1).getUser().getEmail());
+        assertEquals(1L, response.getChanges().get(1).getUser().getVersion());
+        assertNull(response.getChanges().get(2).getUser());
+        assertFalse(response.isHasMore());
+    }
+
+    @Test
+    void testTokenResumesAfterLastChange() {
+        var a = create("a@example.com");
+        var b = create("b@example.com");
+
+        var first = userChangeService.findChangesSince(null, 1);
+        assertEquals(List.of(a), ids(first));
+        assertTrue(first.isHasMore());
+
+        var second = userChangeService.findChangesSince(first.getNextToken(), 1);
+        assertEquals(List.of(b), ids(second));
+        assertFalse(second.isHasMore());
+
+        var idle = userChangeService.findChangesSince(second.getNextToken(), 1);
+        assertTrue(idle.getChanges().isEmpty());
+        assertEquals(second.getNextToken(), idle.getNextToken());
+
+        userService.updateUser(new UpdateUserRequest(a, "a@example.com", "Johnny", "Doe",
+                LocalDate.of(1990, 5, 15), null, null), null);
+        var afterUpdate = userChangeService.findChangesSince(idle.getNextToken(), 1);
+        assertEquals(List.of(a), ids(afterUpdate));
+        assertEquals("Johnny", afterUpdate.getChanges().get(0).getUser().getFirstName());
+    }
+
+    @Test
+    void testBulkDeleteLeavesTombstones() {
+        var a = create("a@example.com");
+        var b = create("b@example.com");
+        var since = userChangeService.findChangesSince(null, null).getNextToken();
+
+        userService.bulkDeleteUsers(List.of(a, b));
+
+        var response = userChangeService.findChangesSince(since, null);
+        assertEquals(List.of(a, b), ids(response));
+        assertEquals(List.of(ChangeType.DELETED, ChangeType.DELETED), types(response));
+    }
+
+    @Test
+    void testOldOrMalformedTokenIsRejected() {
+        var expired = new ChangeToken(LocalDateTime.now().minusYears(1), 1L).encode();
+
+        assertThrows(ChangeTokenExpiredException.class, () -> userChangeService.findChangesSince(expired, null));
+        assertThrows(InvalidPageRequestException.class, () -> userChangeService.findChangesSince("not-a-token", null));
+        assertThrows(InvalidPageRequestException.class, () -> userChangeService.findChangesSince(null, 0));
+    }
+
+    @Test
+    void testPurgeRemovesTombstonesPastRetention() {
+        jdbcTemplate.update("INSERT INTO user_tombstones (user_id, deleted_at) VALUES (?, ?)",
+                1L, LocalDateTime.now().minusYears(1));
+        var recent = create("a@example.com");
+        userService.deleteUserById(recent);
+
+        userChangeService.purgeTombstones();
+
+        assertEquals(List.of(recent), tombstoneRepository.findAll().stream()
+                .map(UserTombstone::getUserId)
+                .toList());
+    }
+
+    private Long create(String email) {
+        userService.createUser(new CreateUserRequest(email, "John", "Doe", LocalDate.of(1990, 5, 15), null, null));
+        return userRepository.findByEmail(email).orElseThrow().getId();
+    }
+
+    private static List<Long> ids(UserChangesResponse response) {
+        return response.getChanges().stream().map(UserChange::getId).toList();
+    }
+
+    private static List<ChangeType> types(UserChangesResponse response) {
+        return response.getChanges().stream().map(UserChange::getType).toList();
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.javatest;
+
+import org.example.javatest.cache.EmailExistenceIndex;
+import org.example.javatest.dto.request.CreateUserRequest;
+import org.example.javatest.dto.request.UpdateUserRequest;
+import org.example.javatest.exception.UserExistException;
+import org.example.javatest.exception.UserVersionConflictException;
+import org.example.javatest.mapper.UserMapperImpl;
+import org.example.javatest.model.User;
+import org.example.javatest.repository.UserRepository;
+import org.example.javatest.service.UserLookupService;
+import org.example.javatest.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrent writers against a real (in-memory) database, without a surrounding test transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "user.registration.min-age=18",
+        "user.email-index.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserService.class, UserLookupService.class, EmailExistenceIndex.class, UserMapperImpl.class,
+        UserServiceStatementCountTest.Config.class})
+class UserConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    private static final int UPDATES_PER_WRITER = 25;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testConditionalUpdatesNeverLoseWrites() throws Exception {
+        var user = userRepository.save(new User("john@example.com", "John", "Doe", LocalDate.of(1990, 5, 15), null, null));
+
+        runConcurrently(writer -> () -> {
+            for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                var request = new UpdateUserRequest(user.getId(), "john@example.com", "Writer" + writer, "Doe",
+                        LocalDate.of(1990, 5, 15), "Update " + i, null);
+                while (true) {
+                    var version = userRepository.findById(user.getId()).orElseThrow().getVersion();
+                    try {
+                        userService.updateUser(request, version);
+                        break;
+                    } catch (UserVersionConflictException e) {
+                        // another writer won this version; reload and retry
+                    }
+                }
+            }
+            return null;
+        });
+
+        var updated = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals(WRITERS * UPDATES_PER_WRITER, updated.getVersion());
+        assertEquals("Update " + (UPDATES_PER_WRITER - 1), updated.getAddress());
+    }
+
+    @Test
+    void testConcurrentCreatesWithSameEmailAreConflicts() throws Exception {
+        var created = new AtomicInteger();
+        var rejected = new AtomicInteger();
+
+        runConcurrently(writer -> () -> {
+            try {
+                userService.createUser(new CreateUserRequest("race@example.com", "Writer" + writer, "Doe",
+                        LocalDate.of(1990, 5, 15), null, null));
+                created.incrementAndGet();
+            } catch (UserExistException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(1, created.get());
+        assertEquals(WRITERS - 1, rejected.get());
+        assertEquals(1, userRepository.count());
+    }
+
+    private static void runConcurrently(WriterFactory writers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            var start = new CountDownLatch(1);
+            var futures = new ArrayList<Future<Void>>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                var work = writers.create(writer);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return work.call();
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface WriterFactory {
+        Callable<Void> create(int writer);
+    }
+}
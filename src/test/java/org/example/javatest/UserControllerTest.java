@@ -3,32 +3,71 @@ package org.example.javatest;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.cache.RangeQueryCoalescer;
+import org.example.javatest.config.HttpMessageConverterConfig;
 import org.example.javatest.controller.UserController;
+import org.example.javatest.converter.ColumnarUserResponseHttpMessageConverter;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.request.BirthDateGrouping;
 import org.example.javatest.dto.request.CreateUserRequest;
 import org.example.javatest.dto.request.UpdateUserRequest;
 import org.example.javatest.dto.response.AllUserByDateRangeResponse;
+import org.example.javatest.dto.response.BirthDateBucket;
+import org.example.javatest.dto.response.BirthDateStatsResponse;
+import org.example.javatest.dto.response.BulkItemStatus;
+import org.example.javatest.dto.response.BulkUserResponse;
+import org.example.javatest.dto.response.BulkUserResult;
+import org.example.javatest.dto.response.ChangeType;
+import org.example.javatest.dto.response.UserChange;
+import org.example.javatest.dto.response.UserChangesResponse;
+import org.example.javatest.events.UserEventStream;
+import org.example.javatest.exhandler.ExpectedErrorLog;
+import org.example.javatest.exhandler.GlobalExceptionHandler;
+import org.example.javatest.service.UserChangeService;
 import org.example.javatest.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class UserControllerTest {
@@ -38,10 +77,20 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserChangeService userChangeService;
+
+    @Mock
+    private UserEventStream userEventStream;
+
     @InjectMocks
     private UserController userController;
 
-    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    @Spy
+    private RangeQueryCoalescer rangeQueryCoalescer = new RangeQueryCoalescer(true);
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
 
     @BeforeEach
     public void setup() {
@@ -98,12 +147,38 @@ class UserControllerTest {
     @Test
     void testUpdateUser() throws Exception {
         var request = new UpdateUserRequest(1L, "email@example.com", "John", "Doe", LocalDate.of(1990, 1, 1), "123 Main St", "555-1234");
+        when(userService.updateUser(any(UpdateUserRequest.class), isNull())).thenReturn(null);
         mockMvc.perform(put("/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(request)))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
 
-        verify(userService, times(1)).updateUser(any(UpdateUserRequest.class));
+        verify(userService, times(1)).updateUser(any(UpdateUserRequest.class), isNull());
+    }
+
+    @Test
+    void testUpdateUserWithIfMatch() throws Exception {
+        var request = new UpdateUserRequest(1L, "email@example.com", "John", "Doe", LocalDate.of(1990, 1, 1), "123 Main St", "555-1234");
+        when(userService.updateUser(any(UpdateUserRequest.class), eq(3L))).thenReturn(4L);
+
+        mockMvc.perform(put("/users")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void testFindUserByIdReturnsETag() throws Exception {
+        var user = new UserDto(1L, "email@example.com", "John", "Doe", LocalDate.of(1990, 1, 1), null, null, 7L);
+        when(userService.findUserById(1L)).thenReturn(user);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(jsonPath("$.version").value(7));
     }
 
     @Test
@@ -154,4 +229,246 @@ class UserControllerTest {
 
         verify(userService, times(1)).findUsersByBirthDateRange(from, to);
     }
+
+    @Test
+    void testBrowserAcceptHeaderGetsJson() throws Exception {
+        var converters = new ArrayList<HttpMessageConverter<?>>(List.of(new MappingJackson2HttpMessageConverter(objectMapper)));
+        new HttpMessageConverterConfig(objectMapper).extendMessageConverters(converters);
+        var negotiatingMockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setMessageConverters(converters.toArray(HttpMessageConverter[]::new))
+                .build();
+        LocalDate from = LocalDate.of(1990, 1, 1);
+        LocalDate to = LocalDate.of(1991, 1, 1);
+        when(userService.findUsersByBirthDateRange(from, to)).thenReturn(new AllUserByDateRangeResponse(List.of(
+                new UserDto(1L, "a@example.com", "John", "Doe", LocalDate.of(1990, 2, 1), null, null, 3L))));
+
+        negotiatingMockMvc.perform(MockMvcRequestBuilders.get("/users/list/by-birth-date-range")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.users[0].email").value("a@example.com"));
+
+        negotiatingMockMvc.perform(MockMvcRequestBuilders.get("/users/list/by-birth-date-range")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(ColumnarUserResponseHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ColumnarUserResponseHttpMessageConverter.MEDIA_TYPE));
+    }
+
+    @Test
+    void testFindUsersByBirthDateRangePage() throws Exception {
+        LocalDate from = LocalDate.of(1990, 1, 1);
+        LocalDate to = LocalDate.of(1991, 1, 1);
+        when(userService.findUsersByBirthDateRange(from, to, "abc", 50))
+                .thenReturn(new AllUserByDateRangeResponse(new ArrayList<>(), "next"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/list/by-birth-date-range")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("cursor", "abc")
+                        .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(userService, times(1)).findUsersByBirthDateRange(from, to, "abc", 50);
+    }
+
+    @Test
+    void testFindChanges() throws Exception {
+        var user = new UserDto(1L, "a@example.com", "John", "Doe", LocalDate.of(1990, 2, 1), null, null, 3L);
+        when(userChangeService.findChangesSince("abc", 2)).thenReturn(new UserChangesResponse(List.of(
+                new UserChange(ChangeType.UPSERTED, 1L, user),
+                new UserChange(ChangeType.DELETED, 2L, null)), "next", true));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/changes")
+                        .param("since", "abc")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("UPSERTED"))
+                .andExpect(jsonPath("$.changes[0].user.email").value("a@example.com"))
+                .andExpect(jsonPath("$.changes[1].type").value("DELETED"))
+                .andExpect(jsonPath("$.changes[1].id").value(2))
+                .andExpect(jsonPath("$.changes[1].user").doesNotExist())
+                .andExpect(jsonPath("$.nextToken").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void testStreamEventsResumesFromLastEventId() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/events")
+                        .header("Last-Event-ID", "42")
+                        .param("after", "7"))
+                .andExpect(request().asyncStarted());
+
+        verify(userEventStream).subscribe(any(SseEmitter.class), eq(42L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamUsersByBirthDateRange() throws Exception {
+        LocalDate from = LocalDate.of(1990, 1, 1);
+        LocalDate to = LocalDate.of(1991, 1, 1);
+        var first = new UserDto(1L, "a@example.com", "John", "Doe", LocalDate.of(1990, 2, 1), null, null);
+        var second = new UserDto(2L, "b@example.com", "Jane", "Doe", LocalDate.of(1990, 3, 1), null, null);
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(2);
+            List.of(first, second).forEach(consumer);
+            return null;
+        }).when(userService).streamUsersByBirthDateRange(eq(from), eq(to), any(Consumer.class));
+
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/users/stream/by-birth-date-range")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(asJsonString(first) + "\n" + asJsonString(second) + "\n"));
+    }
+
+    @Test
+    void testGetBirthDateStats() throws Exception {
+        var from = LocalDate.of(1990, 1, 1);
+        var to = LocalDate.of(1999, 12, 31);
+        var stats = new BirthDateStatsResponse(from, to, BirthDateGrouping.MONTH, null, 3,
+                List.of(new BirthDateBucket("1990-01", 2), new BirthDateBucket("1995-07", 1)));
+        when(userService.getBirthDateStats(from, to, BirthDateGrouping.MONTH, 10)).thenReturn(stats);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/stats/by-birth-date-range")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("groupBy", "MONTH"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.bandWidth").doesNotExist())
+                .andExpect(jsonPath("$.buckets[1].key").value("1995-07"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBulkCreateUsersFromNdjson() throws Exception {
+        var captured = new ArrayList<CreateUserRequest>();
+        when(userService.bulkCreateUsers(any(Iterator.class))).thenAnswer(invocation -> {
+            Iterator<CreateUserRequest> requests = invocation.getArgument(0);
+            requests.forEachRemaining(captured::add);
+            return new BulkUserResponse(captured.size(), captured.size(), 0, List.of());
+        });
+        var first = new CreateUserRequest("a@example.com", "John", "Doe", LocalDate.of(1990, 1, 1), null, null);
+        var second = new CreateUserRequest("b@example.com", "Jane", "Doe", LocalDate.of(1991, 1, 1), null, null);
+
+        mockMvc.perform(post("/users/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(asJsonString(first) + "\n" + asJsonString(second) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2));
+
+        assertEquals(List.of("a@example.com", "b@example.com"),
+                captured.stream().map(CreateUserRequest::getEmail).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBulkCreateUsersFromJsonArrayWithUnbindableRecord() throws Exception {
+        var captured = new ArrayList<CreateUserRequest>();
+        when(userService.bulkCreateUsers(any(Iterator.class))).thenAnswer(invocation -> {
+            Iterator<CreateUserRequest> requests = invocation.getArgument(0);
+            requests.forEachRemaining(captured::add);
+            return new BulkUserResponse(captured.size(), 1, 1, List.of());
+        });
+        var valid = new CreateUserRequest("a@example.com", "John", "Doe", LocalDate.of(1990, 1, 1), null, null);
+
+        mockMvc.perform(post("/users/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"email\":\"x@example.com\",\"birthDate\":\"not-a-date\"}," + asJsonString(valid) + "]"))
+                .andExpect(status().isOk());
+
+        assertEquals(2, captured.size());
+        assertNull(captured.get(0));
+        assertEquals("a@example.com", captured.get(1).getEmail());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBulkCreateUsersReportsRecordsAppliedBeforeTruncatedNdjson() throws Exception {
+        var captured = new ArrayList<CreateUserRequest>();
+        when(userService.bulkCreateUsers(any(Iterator.class))).thenAnswer(invocation -> {
+            Iterator<CreateUserRequest> requests = invocation.getArgument(0);
+            requests.forEachRemaining(captured::add);
+            return new BulkUserResponse(captured.size(), captured.size(), 0, List.of(
+                    new BulkUserResult(0, "a@example.com", BulkItemStatus.CREATED, null)));
+        });
+        var first = new CreateUserRequest("a@example.com", "John", "Doe", LocalDate.of(1990, 1, 1), null, null);
+
+        mockMvc.perform(post("/users/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(asJsonString(first) + "\n{\"email\":\"b@example.com\",\"firstName\":\"Ja"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.payloadError").exists());
+
+        assertEquals(List.of("a@example.com"), captured.stream().map(CreateUserRequest::getEmail).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBulkCreateUsersRejectsPayloadMalformedBeforeFirstRecord() throws Exception {
+        when(userService.bulkCreateUsers(any(Iterator.class))).thenAnswer(invocation -> {
+            Iterator<CreateUserRequest> requests = invocation.getArgument(0);
+            assertFalse(requests.hasNext());
+            return new BulkUserResponse(0, 0, 0, List.of());
+        });
+
+        var advisedMockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry(),
+                        new ExpectedErrorLog(Duration.ofSeconds(10))))
+                .build();
+
+        advisedMockMvc.perform(post("/users/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"email\": oops}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBulkUpdateUsersFromNdjson() throws Exception {
+        var captured = new ArrayList<UpdateUserRequest>();
+        when(userService.bulkUpdateUsers(any(Iterator.class))).thenAnswer(invocation -> {
+            Iterator<UpdateUserRequest> requests = invocation.getArgument(0);
+            requests.forEachRemaining(captured::add);
+            return new BulkUserResponse(captured.size(), captured.size(), 0, List.of());
+        });
+        var first = new UpdateUserRequest(1L, "a@example.com", "John", "Doe", LocalDate.of(1990, 1, 1), null, null);
+        var second = new UpdateUserRequest(2L, "b@example.com", "Jane", "Doe", LocalDate.of(1991, 1, 1), null, null);
+
+        mockMvc.perform(patch("/users/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(asJsonString(first) + "\n" + asJsonString(second) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2));
+
+        assertEquals(List.of(1L, 2L), captured.stream().map(UpdateUserRequest::getId).toList());
+    }
+
+    @Test
+    void testBulkDeleteUsers() throws Exception {
+        var results = List.of(
+                new BulkUserResult(0, 1L, null, BulkItemStatus.DELETED, null),
+                new BulkUserResult(1, 2L, null, BulkItemStatus.NOT_FOUND, "User with id: 2 not found"));
+        when(userService.bulkDeleteUsers(List.of(1L, 2L))).thenReturn(new BulkUserResponse(2, 1, 1, results));
+
+        mockMvc.perform(delete("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("DELETED"))
+                .andExpect(jsonPath("$.results[1].id").value(2));
+    }
 }
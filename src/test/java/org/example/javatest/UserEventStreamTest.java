@@ -0,0 +1,308 @@
+package org.example.javatest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.cache.EmailExistenceIndex;
+import org.example.javatest.dto.request.CreateUserRequest;
+import org.example.javatest.dto.request.UpdateUserRequest;
+import org.example.javatest.dto.response.UserChangeEvent;
+import org.example.javatest.dto.response.UserEventType;
+import org.example.javatest.events.UserEventPublisher;
+import org.example.javatest.events.UserEventStream;
+import org.example.javatest.exception.ChangeTokenExpiredException;
+import org.example.javatest.exception.InvalidPageRequestException;
+import org.example.javatest.mapper.UserMapperImpl;
+import org.example.javatest.repository.UserOutboxRepository;
+import org.example.javatest.repository.UserRepository;
+import org.example.javatest.service.UserLookupService;
+import org.example.javatest.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs without a test transaction, so outbox rows are committed, and visible to the publisher, as in production.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:events;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "user.registration.min-age=18",
+        "user.email-index.enabled=false",
+        "user.events.settle-time=0s",
+        "user.events.batch-size=2",
+        "user.events.buffer-size=1",
+        "user.events.heartbeat-interval=100ms"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserService.class, UserEventStream.class, UserEventPublisher.class, UserLookupService.class,
+        EmailExistenceIndex.class, UserMapperImpl.class, UserEventStreamTest.Config.class})
+class UserEventStreamTest {
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new NoOpCacheManager();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserEventStream eventStream;
+
+    @Autowired
+    private UserEventPublisher eventPublisher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserOutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+        outboxRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(RecordingEmitter::disconnect);
+    }
+
+    @Test
+    void testWritesAppendEventsWithTheirVersion() {
+        var a = create("a@example.com");
+        userService.updateUser(new UpdateUserRequest(a, "a2@example.com", "John", "Doe",
+                LocalDate.of(1990, 5, 15), null, null), 0L);
+        userService.deleteUserById(a);
+
+        var events = outboxRepository.findAfter(0L, PageRequest.ofSize(10));
+
+        assertEquals(List.of(UserEventType.CREATED, UserEventType.UPDATED, UserEventType.DELETED),
+                events.stream().map(UserChangeEvent::getType).toList());
+        assertEquals(Arrays.asList(0L, 1L, null), events.stream().map(UserChangeEvent::getVersion).toList());
+        assertTrue(events.stream().allMatch(event -> a.equals(event.getUserId())));
+    }
+
+    @Test
+    void testBulkWritesAppendEventsWithTheirVersion() {
+        var birthDate = LocalDate.of(1990, 5, 15);
+        userService.bulkCreateUsers(List.of(
+                new CreateUserRequest("a@example.com", "John", "Doe", birthDate, null, null),
+                new CreateUserRequest("b@example.com", "John", "Doe", birthDate, null, null)).iterator());
+        var a = userRepository.findByEmail("a@example.com").orElseThrow().getId();
+        var b = userRepository.findByEmail("b@example.com").orElseThrow().getId();
+        userService.bulkUpdateUsers(List.of(
+                new UpdateUserRequest(a, "a2@example.com", "John", "Doe", birthDate, null, null)).iterator());
+        userService.bulkDeleteUsers(List.of(a, b));
+
+        var events = outboxRepository.findAfter(0L, PageRequest.ofSize(10));
+
+        assertEquals(List.of(UserEventType.CREATED, UserEventType.CREATED, UserEventType.UPDATED,
+                        UserEventType.DELETED, UserEventType.DELETED),
+                events.stream().map(UserChangeEvent::getType).toList());
+        assertEquals(List.of(a, b, a), userIds(events.subList(0, 3)));
+        assertEquals(Set.of(a, b), Set.copyOf(userIds(events.subList(3, 5))));
+        assertEquals(Arrays.asList(0L, 0L, 1L, null, null),
+                events.stream().map(UserChangeEvent::getVersion).toList());
+    }
+
+    @Test
+    void testSubscribersGetPublishedBatchesAndResumeFromTheOutbox() throws Exception {
+        var live = subscribe(null, null);
+        var a = create("a@example.com");
+        var b = create("b@example.com");
+        var c = create("c@example.com");
+
+        eventPublisher.publish();
+
+        var first = live.next();
+        assertEquals(List.of(a, b), userIds(first));
+        assertEquals(List.of(c), userIds(live.next()));
+
+        var resumed = subscribe(first.get(0).getOffset(), null);
+        assertEquals(List.of(b, c), userIds(resumed.next()));
+
+        var d = create("d@example.com");
+        eventPublisher.publish();
+        assertEquals(List.of(d), userIds(resumed.next()));
+        assertEquals(List.of(d), userIds(live.next()));
+    }
+
+    @Test
+    void testSlowSubscriberIsEvictedAndResumesFromItsLastEvent() throws Exception {
+        var release = new CountDownLatch(1);
+        var slow = subscribe(null, release);
+        var a = create("a@example.com");
+        eventPublisher.publish();
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+
+        var b = create("b@example.com");
+        eventPublisher.publish();
+        var c = create("c@example.com");
+        eventPublisher.publish();
+        release.countDown();
+
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        var delivered = slow.next();
+        assertEquals(List.of(a), userIds(delivered));
+        assertNull(slow.batches.poll());
+
+        var resumed = subscribe(delivered.get(0).getOffset(), null);
+        assertEquals(List.of(b, c), userIds(resumed.next()));
+    }
+
+    @Test
+    void testPublisherStopsAtTheFirstUnsettledEvent() throws Exception {
+        var live = subscribe(null, null);
+        jdbcTemplate.update("INSERT INTO user_outbox (user_id, type, created_at) VALUES (?, ?, ?)",
+                1L, UserEventType.UPDATED.name(), LocalDateTime.now().plusHours(1));
+        create("a@example.com");
+
+        eventPublisher.publish();
+
+        assertNull(live.batches.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testOffsetBeforeTheRetainedOutboxIsRejected() {
+        jdbcTemplate.update("INSERT INTO user_outbox (user_id, type, created_at) VALUES (?, ?, ?)",
+                1L, UserEventType.DELETED.name(), LocalDateTime.now().minusYears(1));
+        long purged = outboxRepository.findFirstOffset();
+        create("a@example.com");
+
+        eventPublisher.purgeOutbox();
+
+        assertEquals(purged + 1, outboxRepository.findFirstOffset());
+        assertThrows(ChangeTokenExpiredException.class, () -> subscribe(purged - 1, null));
+        assertThrows(InvalidPageRequestException.class, () -> subscribe(-1L, null));
+        assertDoesNotThrow(() -> subscribe(purged, null));
+    }
+
+    private RecordingEmitter subscribe(Long after, CountDownLatch release) {
+        var emitter = new RecordingEmitter(release);
+        eventStream.subscribe(emitter, after);
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    private Long create(String email) {
+        userService.createUser(new CreateUserRequest(email, "John", "Doe", LocalDate.of(1990, 5, 15), null, null));
+        return userRepository.findByEmail(email).orElseThrow().getId();
+    }
+
+    private static List<Long> userIds(List<UserChangeEvent> events) {
+        return events.stream().map(UserChangeEvent::getUserId).toList();
+    }
+
+    /**
+     * Records the batches sent to it. With a {@code release} latch, sending a batch blocks until it is released,
+     * like a client that stopped reading; heartbeats never block.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<List<UserChangeEvent>> batches = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile boolean disconnected;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Client disconnected");
+            }
+            for (var data : builder.build()) {
+                if (data.getData() instanceof List<?> events) {
+                    sending.countDown();
+                    if (release != null) {
+                        await(release);
+                    }
+                    batches.add((List<UserChangeEvent>) events);
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        private List<UserChangeEvent> next() throws InterruptedException {
+            var batch = batches.poll(5, TimeUnit.SECONDS);
+            assertNotNull(batch);
+            return batch;
+        }
+
+        private void disconnect() {
+            disconnected = true;
+        }
+
+        private static void await(CountDownLatch latch) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
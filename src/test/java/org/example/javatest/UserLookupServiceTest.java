@@ -0,0 +1,138 @@
+package org.example.javatest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.mapper.UserMapper;
+import org.example.javatest.model.User;
+import org.example.javatest.repository.UserRepository;
+import org.example.javatest.service.UserLookupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig(UserLookupServiceTest.Config.class)
+class UserLookupServiceTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(UserLookupService.class)
+    static class Config {
+
+        @Bean
+        UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+
+        @Bean
+        UserMapper userMapper() {
+            return mock(UserMapper.class);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            var cacheManager = new CaffeineCacheManager(UserLookupService.USERS_BY_ID, UserLookupService.EMAIL_EXISTS);
+            cacheManager.setCacheSpecification("maximumSize=100,recordStats");
+            return cacheManager;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        reset(userRepository, userMapper);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void testFindByIdIsReadThrough() {
+        var user = new User();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userMapper.toUserDto(user)).thenReturn(new UserDto());
+
+        assertTrue(userLookupService.findById(1L).isPresent());
+        assertTrue(userLookupService.findById(1L).isPresent());
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testMissingIdIsNotCached() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertFalse(userLookupService.findById(2L).isPresent());
+        assertFalse(userLookupService.findById(2L).isPresent());
+
+        verify(userRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void testEmailExistenceIsCachedCaseInsensitivelyAndEvicted() {
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+
+        assertFalse(userLookupService.existsByEmail("new@example.com"));
+        assertFalse(userLookupService.existsByEmail("NEW@example.com"));
+        verify(userRepository, times(1)).existsByEmail("new@example.com");
+
+        userLookupService.evict(null, "New@Example.com");
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(true);
+
+        assertTrue(userLookupService.existsByEmail("new@example.com"));
+    }
+
+    @Test
+    void testExistingEmailIsNotCached() {
+        when(userRepository.existsByEmail("taken@example.com")).thenReturn(true);
+
+        assertTrue(userLookupService.existsByEmail("taken@example.com"));
+        assertTrue(userLookupService.existsByEmail("taken@example.com"));
+
+        verify(userRepository, times(2)).existsByEmail("taken@example.com");
+    }
+
+    @Test
+    void testEvictById() {
+        var user = new User();
+        when(userRepository.findById(3L)).thenReturn(Optional.of(user));
+        when(userMapper.toUserDto(user)).thenReturn(new UserDto());
+        userLookupService.findById(3L);
+
+        userLookupService.evict(3L);
+        userLookupService.findById(3L);
+
+        verify(userRepository, times(2)).findById(3L);
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.javatest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.javatest.cache.EmailExistenceIndex;
+import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.request.CreateUserRequest;
+import org.example.javatest.dto.request.UpdateUserRequest;
+import org.example.javatest.mapper.UserMapperImpl;
+import org.example.javatest.model.User;
+import org.example.javatest.repository.UserRepository;
+import org.example.javatest.service.UserLookupService;
+import org.example.javatest.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Second-level and query cache invalidation for every write path of {@link UserService}, including the JDBC batch
+ * paths Hibernate does not see.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cache;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "user.registration.min-age=18",
+        "user.email-index.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserService.class, UserLookupService.class, EmailExistenceIndex.class, UserMapperImpl.class,
+        UserServiceStatementCountTest.Config.class})
+class UserSecondLevelCacheTest {
+
+    private static final LocalDate FROM = LocalDate.of(1980, 1, 1);
+    private static final LocalDate TO = LocalDate.of(1999, 12, 31);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("john@example.com", "John", "Doe", LocalDate.of(1990, 5, 15), null, null));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testEntityIsServedFromSecondLevelCache() {
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, user.getId()));
+    }
+
+    @Test
+    void testRangeQueryIsServedFromQueryCache() {
+        userService.findUsersByBirthDateRange(FROM, TO);
+        userService.findUsersByBirthDateRange(FROM, TO);
+
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testUpdateInvalidatesEntityAndQueryCache() {
+        userRepository.findById(user.getId());
+        userService.findUsersByBirthDateRange(FROM, TO);
+
+        userService.updateUser(update("Jane"), null);
+
+        assertEquals("Jane", userRepository.findById(user.getId()).orElseThrow().getFirstName());
+        assertEquals("Jane", firstNames().get(0));
+    }
+
+    @Test
+    void testBatchUpdateInvalidatesEntityAndQueryCache() {
+        userRepository.findById(user.getId());
+        userService.findUsersByBirthDateRange(FROM, TO);
+
+        userService.bulkUpdateUsers(List.of(update("Jane")).iterator());
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, user.getId()));
+        assertEquals("Jane", userRepository.findById(user.getId()).orElseThrow().getFirstName());
+        assertEquals("Jane", firstNames().get(0));
+    }
+
+    @Test
+    void testBulkCreateInvalidatesQueryCache() {
+        userService.findUsersByBirthDateRange(FROM, TO);
+
+        userService.bulkCreateUsers(List.of(new CreateUserRequest("jane@example.com", "Jane", "Doe",
+                LocalDate.of(1991, 1, 1), null, null)).iterator());
+
+        assertEquals(List.of("John", "Jane"), firstNames());
+    }
+
+    @Test
+    void testDeletesInvalidateEntityAndQueryCache() {
+        userRepository.findById(user.getId());
+        userService.findUsersByBirthDateRange(FROM, TO);
+
+        userService.bulkDeleteUsers(List.of(user.getId()));
+
+        assertTrue(userRepository.findById(user.getId()).isEmpty());
+        assertTrue(firstNames().isEmpty());
+    }
+
+    @Test
+    void testQueryCacheIsNotRepopulatedBeforeCommit() {
+        userService.findUsersByBirthDateRange(FROM, TO);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.bulkUpdateUsers(List.of(update("Jane")).iterator());
+            // a concurrent reader still sees the committed state and must not cache it past the commit
+            var concurrentReader = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            concurrentReader.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            assertEquals("John", concurrentReader.execute(inner -> firstNames().get(0)));
+        });
+
+        assertEquals("Jane", firstNames().get(0));
+    }
+
+    private UpdateUserRequest update(String firstName) {
+        return new UpdateUserRequest(user.getId(), "john@example.com", firstName, "Doe",
+                LocalDate.of(1990, 5, 15), null, null);
+    }
+
+    private List<String> firstNames() {
+        return userService.findUsersByBirthDateRange(FROM, TO).getUsers().stream()
+                .map(UserDto::getFirstName)
+                .toList();
+    }
+}
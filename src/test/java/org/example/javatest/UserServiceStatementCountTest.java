@@ -0,0 +1,221 @@
+package org.example.javatest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.javatest.cache.EmailExistenceIndex;
+import org.example.javatest.dto.request.BirthDateGrouping;
+import org.example.javatest.dto.request.UpdateUserRequest;
+import org.example.javatest.dto.response.BirthDateBucket;
+import org.example.javatest.exception.UserExistException;
+import org.example.javatest.exception.UserNotFoundException;
+import org.example.javatest.mapper.UserMapperImpl;
+import org.example.javatest.model.User;
+import org.example.javatest.repository.UserRepository;
+import org.example.javatest.service.UserLookupService;
+import org.example.javatest.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "user.registration.min-age=18",
+        "user.email-index.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserService.class, UserLookupService.class, EmailExistenceIndex.class, UserMapperImpl.class,
+        UserServiceStatementCountTest.Config.class})
+class UserServiceStatementCountTest {
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new NoOpCacheManager();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        static StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+    }
+
+    /**
+     * Counts the statements prepared on connections from the data source, whether Hibernate or JdbcTemplate runs
+     * them. A JDBC batch is one statement.
+     */
+    static class StatementCounter implements BeanPostProcessor {
+
+        private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "createStatement", "prepareCall");
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return counting(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return counting(super.getConnection(username, password));
+                }
+            };
+        }
+
+        int get() {
+            return count.get();
+        }
+
+        void reset() {
+            count.set(0);
+        }
+
+        private Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (STATEMENT_METHODS.contains(method.getName())) {
+                            count.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StatementCounter statements;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persistFlushFind(new User("john@example.com", "John", "Doe",
+                LocalDate.of(1990, 5, 15), "1 Main Street", "+15550000001"));
+        entityManager.persistAndFlush(new User("jane@example.com", "Jane", "Doe",
+                LocalDate.of(1991, 6, 16), null, null));
+        entityManager.clear();
+        statements.reset();
+    }
+
+    @Test
+    void testDeleteIsDeleteTombstoneAndOutboxStatements() {
+        userService.deleteUserById(user.getId());
+
+        assertEquals(3, statements.get());
+        assertFalse(userRepository.existsById(user.getId()));
+    }
+
+    @Test
+    void testDeleteOfMissingUserIsOneStatement() {
+        assertThrows(UserNotFoundException.class, () -> userService.deleteUserById(-1L));
+
+        assertEquals(1, statements.get());
+    }
+
+    @Test
+    void testUpdateIsUpdateAndOutboxStatements() {
+        userService.updateUser(new UpdateUserRequest(user.getId(), "johnny@example.com", "Johnny", "Doe",
+                LocalDate.of(1990, 5, 15), "2 Main Street", "+15550000002"), null);
+
+        assertEquals(2, statements.get());
+        var updated = entityManager.find(User.class, user.getId());
+        assertEquals("johnny@example.com", updated.getEmail());
+        assertEquals("Johnny", updated.getFirstName());
+        assertEquals("2 Main Street", updated.getAddress());
+    }
+
+    @Test
+    void testUpdateToTakenEmailIsRejected() {
+        var request = new UpdateUserRequest(user.getId(), "jane@example.com", "John", "Doe",
+                LocalDate.of(1990, 5, 15), null, null);
+
+        assertThrows(UserExistException.class, () -> userService.updateUser(request, null));
+        assertEquals(1, statements.get());
+    }
+
+    @Test
+    void testBirthDateStatsIsOneStatement() {
+        var stats = userService.getBirthDateStats(LocalDate.of(1990, 1, 1), LocalDate.of(1991, 12, 31),
+                BirthDateGrouping.MONTH, 10);
+
+        assertEquals(1, statements.get());
+        assertEquals(2, stats.getTotal());
+        assertEquals(List.of("1990-05", "1991-06"),
+                stats.getBuckets().stream().map(BirthDateBucket::getKey).toList());
+    }
+
+    @Test
+    void testBirthDateStatsByAgeBandMatchesExactAges() {
+        var today = LocalDate.now();
+        entityManager.persistAndFlush(new User("born-tomorrow@example.com", "A", "B",
+                today.plusDays(1).minusYears(40), null, null));
+        entityManager.persistAndFlush(new User("born-today@example.com", "A", "B",
+                today.minusYears(40), null, null));
+        statements.reset();
+
+        var stats = userService.getBirthDateStats(today.minusYears(41), today, BirthDateGrouping.AGE_BAND, 1);
+
+        assertEquals(1, statements.get());
+        var counts = stats.getBuckets().stream()
+                .collect(Collectors.toMap(BirthDateBucket::getKey, BirthDateBucket::getCount));
+        assertEquals(1L, counts.get("39-39"));
+        assertEquals(1L, counts.get("40-40"));
+    }
+}
@@ -1,14 +1,29 @@
 package org.example.javatest;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.example.javatest.cache.EmailExistenceIndex;
 import org.example.javatest.dto.UserDto;
+import org.example.javatest.dto.request.BirthDateGrouping;
 import org.example.javatest.dto.request.CreateUserRequest;
 import org.example.javatest.dto.request.UpdateUserRequest;
+import org.example.javatest.dto.response.BirthDateBucket;
+import org.example.javatest.dto.response.BulkItemStatus;
+import org.example.javatest.dto.response.BulkUserResult;
+import org.example.javatest.dto.response.UserEventType;
 import org.example.javatest.exception.AgeLessEighteenException;
+import org.example.javatest.exception.InvalidPageRequestException;
+import org.example.javatest.exception.InvalidStatsRequestException;
 import org.example.javatest.exception.UserExistException;
 import org.example.javatest.exception.UserNotFoundException;
+import org.example.javatest.exception.UserVersionConflictException;
 import org.example.javatest.mapper.UserMapper;
 import org.example.javatest.model.User;
+import org.example.javatest.pagination.BirthDateCursor;
+import org.example.javatest.repository.BirthYearCount;
+import org.example.javatest.repository.EmailOwner;
 import org.example.javatest.repository.UserRepository;
+import org.example.javatest.service.UserLookupService;
 import org.example.javatest.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,19 +32,37 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Optional;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,11 +80,23 @@ class UserServiceTest {
     @InjectMocks
     private UserService userService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.initMocks(this);
-        userService = new UserService(userRepository, userMapper);
+        var transactionManager = mock(PlatformTransactionManager.class);
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        var validator = Validation.buildDefaultValidatorFactory().getValidator();
+        var emailExistenceIndex = new EmailExistenceIndex(userRepository, transactionManager, 1000, 0.01, true);
+        meterRegistry = new SimpleMeterRegistry();
+        var userLookupService = new UserLookupService(userRepository, userMapper, new NoOpCacheManager(), meterRegistry);
+        userService = new UserService(userRepository, userMapper, transactionTemplate, validator,
+                emailExistenceIndex, userLookupService, meterRegistry);
         ReflectionTestUtils.setField(userService, "minAge", minAge);
+        ReflectionTestUtils.setField(userService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(userService, "maxPageSize", 3);
+        ReflectionTestUtils.setField(userService, "bulkChunkSize", 2);
     }
 
     @Test
@@ -59,12 +104,13 @@ class UserServiceTest {
         CreateUserRequest request = new CreateUserRequest("user@example.com", "John", "Doe", LocalDate.now().minusYears(20), "123 Main St", "1234567890");
         User mockedUser = new User();
 
-        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.empty());
+        when(userRepository.existsByEmail(request.getEmail())).thenReturn(false);
         when(userMapper.toEntity(any(CreateUserRequest.class))).thenReturn(mockedUser);
 
         userService.createUser(request);
 
         verify(userRepository).save(mockedUser);
+        verify(userRepository).insertOutboxEvent(mockedUser.getId(), UserEventType.CREATED);
     }
 
     @Test
@@ -79,11 +125,12 @@ class UserServiceTest {
     @Test
     void testCreateUser_UserExists() {
         var request = new CreateUserRequest("user@example.com", "John", "Doe", LocalDate.now().minusYears(45), "123 Main St", "1234567890");
-        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(new User()));
+        when(userRepository.existsByEmail(request.getEmail())).thenReturn(true);
         Exception exception = assertThrows(UserExistException.class, () -> {
             userService.createUser(request);
         });
         assertTrue(exception.getMessage().contains("User with this email already exists"));
+        verify(userRepository, never()).insertOutboxEvent(any(), any());
     }
 
     @Test
@@ -91,30 +138,243 @@ class UserServiceTest {
         LocalDate startDate = LocalDate.now().minusYears(1);
         LocalDate endDate = LocalDate.now();
         when(userRepository.findByBirthDateBetween(any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(Collections.singletonList(new User()));
-        when(userMapper.toUserDto(any(User.class))).thenReturn(new UserDto());
+                .thenReturn(Collections.singletonList(new UserDto()));
         var response = userService.findUsersByBirthDateRange(startDate, endDate);
         assertFalse(response.getUsers().isEmpty());
     }
 
+    @Test
+    void testFindUsersByBirthDateRange_RecordsResultSize() {
+        LocalDate from = LocalDate.of(1990, 1, 1);
+        LocalDate to = LocalDate.of(2000, 1, 1);
+        when(userRepository.findByBirthDateBetween(from, to)).thenReturn(List.of(new UserDto(), new UserDto()));
+        when(userRepository.streamByBirthDateBetween(from, to)).thenReturn(Stream.of(new UserDto(), new UserDto(), new UserDto()));
+
+        userService.findUsersByBirthDateRange(from, to);
+        userService.streamUsersByBirthDateRange(from, to, user -> { });
+
+        var list = meterRegistry.get(UserService.SEARCH_RESULTS).tag("query", "list").summary();
+        var stream = meterRegistry.get(UserService.SEARCH_RESULTS).tag("query", "stream").summary();
+        assertEquals(1, list.count());
+        assertEquals(2, list.totalAmount());
+        assertEquals(3, stream.totalAmount());
+    }
+
+    @Test
+    void testFindUsersByBirthDateRangePage_ReturnsNextCursor() {
+        LocalDate from = LocalDate.of(1990, 1, 1);
+        LocalDate to = LocalDate.of(2000, 1, 1);
+        var first = userWithBirthDate(1L, LocalDate.of(1990, 5, 1));
+        var second = userWithBirthDate(2L, LocalDate.of(1991, 5, 1));
+        var third = userWithBirthDate(3L, LocalDate.of(1992, 5, 1));
+        when(userRepository.findFirstPageByBirthDateBetween(from, to, PageRequest.ofSize(3)))
+                .thenReturn(List.of(first, second, third));
+
+        var response = userService.findUsersByBirthDateRange(from, to, null, null);
+
+        assertEquals(2, response.getUsers().size());
+        var cursor = BirthDateCursor.decode(response.getNextCursor());
+        assertEquals(LocalDate.of(1991, 5, 1), cursor.getBirthDate());
+        assertEquals(2L, cursor.getId());
+    }
+
+    @Test
+    void testFindUsersByBirthDateRangePage_LastPageHasNoCursor() {
+        LocalDate from = LocalDate.of(1990, 1, 1);
+        LocalDate to = LocalDate.of(2000, 1, 1);
+        var cursor = new BirthDateCursor(LocalDate.of(1991, 5, 1), 2L);
+        when(userRepository.findNextPageByBirthDateBetween(eq(from), eq(to), eq(LocalDate.of(1991, 5, 1)), eq(2L), eq(PageRequest.ofSize(4))))
+                .thenReturn(List.of(userWithBirthDate(3L, LocalDate.of(1992, 5, 1))));
+
+        var response = userService.findUsersByBirthDateRange(from, to, cursor.encode(), 10);
+
+        assertEquals(1, response.getUsers().size());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void testFindUsersByBirthDateRangePage_InvalidCursor() {
+        LocalDate from = LocalDate.of(1990, 1, 1);
+        LocalDate to = LocalDate.of(2000, 1, 1);
+        assertThrows(InvalidPageRequestException.class,
+                () -> userService.findUsersByBirthDateRange(from, to, "not-a-cursor", null));
+        assertThrows(InvalidPageRequestException.class,
+                () -> userService.findUsersByBirthDateRange(from, to, null, 0));
+    }
+
+    @Test
+    void testGetBirthDateStats_ByAgeBand() {
+        var from = LocalDate.of(1900, 1, 1);
+        var to = LocalDate.now();
+        int thisYear = to.getYear();
+        when(userRepository.countByBirthYear(eq(from), eq(to), eq(to.getMonthValue() * 100 + to.getDayOfMonth())))
+                .thenReturn(List.of(birthYearCount(thisYear - 30, 3, 1), birthYearCount(thisYear - 25, 2, 2)));
+
+        var response = userService.getBirthDateStats(from, to, BirthDateGrouping.AGE_BAND, 10);
+
+        assertEquals(5, response.getTotal());
+        assertEquals(10, response.getBandWidth());
+        assertEquals(List.of("20-29", "30-39"),
+                response.getBuckets().stream().map(BirthDateBucket::getKey).toList());
+        assertEquals(List.of(3L, 2L),
+                response.getBuckets().stream().map(BirthDateBucket::getCount).toList());
+    }
+
+    @Test
+    void testGetBirthDateStats_InvalidBandWidth() {
+        var from = LocalDate.of(1990, 1, 1);
+        var to = LocalDate.of(2000, 1, 1);
+
+        assertThrows(InvalidStatsRequestException.class,
+                () -> userService.getBirthDateStats(from, to, BirthDateGrouping.AGE_BAND, 0));
+        verify(userRepository, never()).countByBirthYear(any(), any(), anyInt());
+    }
+
+    @Test
+    void testBulkCreateUsers_ReportsEachRow() {
+        var adult = LocalDate.now().minusYears(30);
+        var requests = Arrays.asList(
+                new CreateUserRequest("new@example.com", "John", "Doe", adult, null, null),
+                new CreateUserRequest("taken@example.com", "John", "Doe", adult, null, null),
+                new CreateUserRequest("NEW@example.com", "John", "Doe", adult, null, null),
+                new CreateUserRequest("young@example.com", "John", "Doe", LocalDate.now().minusYears(10), null, null),
+                null,
+                new CreateUserRequest("bad-email", "John", "Doe", adult, null, null));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@example.com"));
+        when(userMapper.toEntity(any(CreateUserRequest.class))).thenReturn(new User());
+
+        var response = userService.bulkCreateUsers(requests.iterator());
+
+        assertEquals(6, response.getTotal());
+        assertEquals(1, response.getSucceeded());
+        assertEquals(5, response.getFailed());
+        assertEquals(List.of(BulkItemStatus.CREATED, BulkItemStatus.DUPLICATE, BulkItemStatus.DUPLICATE,
+                        BulkItemStatus.INVALID, BulkItemStatus.INVALID, BulkItemStatus.INVALID),
+                response.getResults().stream().map(BulkUserResult::getStatus).toList());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5),
+                response.getResults().stream().map(BulkUserResult::getIndex).toList());
+        verify(userRepository, times(1)).insertAll(anyList());
+        verify(userRepository).insertCreatedOutboxEvents(List.of("new@example.com"));
+    }
+
+    @Test
+    void testBulkCreateUsers_FallsBackToSingleRowsOnConstraintViolation() {
+        var adult = LocalDate.now().minusYears(30);
+        var requests = List.of(
+                new CreateUserRequest("first@example.com", "John", "Doe", adult, null, null),
+                new CreateUserRequest("second@example.com", "John", "Doe", adult, null, null));
+        var first = new User();
+        var second = new User();
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userMapper.toEntity(requests.get(0))).thenReturn(first);
+        when(userMapper.toEntity(requests.get(1))).thenReturn(second);
+        when(userRepository.insertAll(List.of(first, second))).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userRepository.insertAll(List.of(second))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        var response = userService.bulkCreateUsers(requests.iterator());
+
+        assertEquals(List.of(BulkItemStatus.CREATED, BulkItemStatus.FAILED),
+                response.getResults().stream().map(BulkUserResult::getStatus).toList());
+        verify(userRepository).insertAll(List.of(first));
+        verify(userRepository).insertCreatedOutboxEvents(List.of("first@example.com"));
+        verify(userRepository, never()).insertCreatedOutboxEvents(List.of("second@example.com"));
+    }
+
+    @Test
+    void testBulkUpdateUsers_ReportsEachRow() {
+        var adult = LocalDate.now().minusYears(30);
+        var requests = Arrays.asList(
+                new UpdateUserRequest(1L, "own@example.com", "John", "Doe", adult, null, null),
+                new UpdateUserRequest(2L, "taken@example.com", "John", "Doe", adult, null, null),
+                new UpdateUserRequest(3L, "missing@example.com", "John", "Doe", adult, null, null),
+                new UpdateUserRequest(1L, "again@example.com", "John", "Doe", adult, null, null),
+                new UpdateUserRequest(4L, "OWN@example.com", "John", "Doe", adult, null, null),
+                new UpdateUserRequest(5L, "young@example.com", "John", "Doe", LocalDate.now().minusYears(10), null, null));
+        when(userRepository.findExistingIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .filter(id -> id != 3L)
+                        .collect(Collectors.toSet()));
+        when(userRepository.findByEmailIn(anyCollection())).thenReturn(List.of(
+                emailOwner(1L, "own@example.com"), emailOwner(9L, "taken@example.com")));
+        when(userMapper.toEntity(any(UpdateUserRequest.class))).thenReturn(new User());
+
+        var response = userService.bulkUpdateUsers(requests.iterator());
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(List.of(BulkItemStatus.UPDATED, BulkItemStatus.DUPLICATE, BulkItemStatus.NOT_FOUND,
+                        BulkItemStatus.DUPLICATE, BulkItemStatus.DUPLICATE, BulkItemStatus.INVALID),
+                response.getResults().stream().map(BulkUserResult::getStatus).toList());
+        assertEquals(List.of(1L, 2L, 3L, 1L, 4L, 5L),
+                response.getResults().stream().map(BulkUserResult::getId).toList());
+        verify(userRepository, times(1)).updateAll(anyList());
+        verify(userRepository).insertOutboxEvents(List.of(1L), UserEventType.UPDATED);
+    }
+
+    @Test
+    void testBulkUpdateUsers_FallsBackToSingleRowsOnConstraintViolation() {
+        var adult = LocalDate.now().minusYears(30);
+        var requests = List.of(
+                new UpdateUserRequest(1L, "first@example.com", "John", "Doe", adult, null, null),
+                new UpdateUserRequest(2L, "second@example.com", "John", "Doe", adult, null, null));
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(Set.of(1L, 2L));
+        when(userRepository.findByEmailIn(anyCollection())).thenReturn(List.of());
+        when(userMapper.toEntity(any(UpdateUserRequest.class))).thenReturn(new User());
+        when(userRepository.updateAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userRepository.updateUser(eq(1L), any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        when(userRepository.updateUser(eq(2L), any(), any(), any(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        var response = userService.bulkUpdateUsers(requests.iterator());
+
+        assertEquals(List.of(BulkItemStatus.UPDATED, BulkItemStatus.FAILED),
+                response.getResults().stream().map(BulkUserResult::getStatus).toList());
+        verify(userRepository).insertOutboxEvent(1L, UserEventType.UPDATED);
+        verify(userRepository, never()).insertOutboxEvent(2L, UserEventType.UPDATED);
+    }
+
+    @Test
+    void testBulkDeleteUsers_ReportsEachId() {
+        when(userRepository.findExistingIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .filter(id -> id != 2L)
+                        .collect(Collectors.toSet()));
+
+        var response = userService.bulkDeleteUsers(Arrays.asList(1L, 2L, null, 1L, 3L));
+
+        assertEquals(5, response.getTotal());
+        assertEquals(2, response.getSucceeded());
+        assertEquals(List.of(BulkItemStatus.DELETED, BulkItemStatus.NOT_FOUND, BulkItemStatus.INVALID,
+                        BulkItemStatus.DUPLICATE, BulkItemStatus.DELETED),
+                response.getResults().stream().map(BulkUserResult::getStatus).toList());
+        verify(userRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(userRepository).deleteAllByIdInBatch(Set.of(3L));
+        verify(userRepository).insertTombstones(Set.of(1L));
+        verify(userRepository).insertTombstones(Set.of(3L));
+        verify(userRepository).insertOutboxEvents(Set.of(1L), UserEventType.DELETED);
+        verify(userRepository).insertOutboxEvents(Set.of(3L), UserEventType.DELETED);
+    }
 
     @Test
     void testDeleteUserById_Success() {
         Long userId = 1L;
-        User user = new User();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.deleteUserById(userId)).thenReturn(1);
         assertDoesNotThrow(() -> userService.deleteUserById(userId));
-        verify(userRepository).delete(user);
+        verify(userRepository).deleteUserById(userId);
+        verify(userRepository).insertTombstones(List.of(userId));
+        verify(userRepository).insertOutboxEvent(userId, UserEventType.DELETED);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
     void testDeleteUserById_NotFound() {
         Long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.deleteUserById(userId)).thenReturn(0);
         Exception exception = assertThrows(UserNotFoundException.class, () -> {
             userService.deleteUserById(userId);
         });
         assertTrue(exception.getMessage().contains("User with id: " + userId + " not found"));
+        verify(userRepository, never()).insertTombstones(anyCollection());
+        verify(userRepository, never()).insertOutboxEvent(any(), any());
     }
 
 
@@ -124,58 +384,118 @@ class UserServiceTest {
         String newEmail = "new_email@example.com";
         var request = new UpdateUserRequest(id, newEmail, "John", "Doe", LocalDate.now().minusYears(20), "123 Main St", "1234567890");
 
-        User user = new User();
-        user.setId(id);
-        user.setEmail("old_email@example.com");
-        user.setFirstName("OldName");
-        user.setLastName("OldLastName");
-
-        when(userRepository.findById(request.getId())).thenReturn(Optional.of(user));
-        when(userRepository.findByEmail(newEmail)).thenReturn(Optional.empty());
-
-        userService.updateUser(request);
+        when(userRepository.updateUser(id, null, newEmail, "John", "Doe", request.getBirthDate(), "123 Main St", "1234567890"))
+                .thenReturn(1);
 
-        assertEquals(newEmail, user.getEmail());
-        assertEquals("John", user.getFirstName());
-        assertEquals("Doe", user.getLastName());
+        assertDoesNotThrow(() -> userService.updateUser(request, null));
+        verify(userRepository).insertOutboxEvent(id, UserEventType.UPDATED);
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).existsByEmail(any());
     }
 
     @Test
     void testUpdateUser_NotFound() {
         var request = new UpdateUserRequest(1L, "user@example.com", "John", "Doe", LocalDate.now().minusYears(20), "123 Main St", "1234567890");
-        when(userRepository.findById(request.getId())).thenReturn(Optional.empty());
+        when(userRepository.updateUser(eq(1L), any(), any(), any(), any(), any(), any(), any())).thenReturn(0);
         Exception exception = assertThrows(UserNotFoundException.class, () -> {
-            userService.updateUser(request);
+            userService.updateUser(request, null);
         });
         assertTrue(exception.getMessage().contains("User with id: " + request.getId() + " not found"));
+        verify(userRepository, never()).insertOutboxEvent(any(), any());
     }
     @Test
     void testUpdateUser_EmailExists() {
         UpdateUserRequest request = new UpdateUserRequest(1L, "new_email@example.com", "John", "Doe", LocalDate.now().minusYears(20), "123 Main St", "1234567890");
-        User user = new User();
-        user.setEmail("old_email@example.com");
-        when(userRepository.findById(request.getId())).thenReturn(Optional.of(user));
-        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(new User()));
+        when(userRepository.updateUser(eq(1L), any(), any(), any(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'uk_users_email'"));
         Exception exception = assertThrows(UserExistException.class, () -> {
-            userService.updateUser(request);
+            userService.updateUser(request, null);
         });
         assertTrue(exception.getMessage().contains("User with this email already exists"));
     }
 
     @Test
-    void testUpdateUser_WithMismatchedIdAndEmail_ThrowsNoException() {
-        Long id = 1L;
-        String newEmail = "mismatch_email@example.com";
-        var request = new UpdateUserRequest(id, newEmail, "John", "Doe", LocalDate.now().minusYears(20), "123 Main St", "1234567890");
+    void testUpdateUser_AgeValidationFails() {
+        var request = new UpdateUserRequest(1L, "user@example.com", "John", "Doe", LocalDate.now().minusYears(10), "123 Main St", "1234567890");
+        assertThrows(AgeLessEighteenException.class, () -> userService.updateUser(request, null));
+        verify(userRepository, never()).updateUser(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testUpdateUser_WithMatchingVersionReturnsNextVersion() {
+        var request = new UpdateUserRequest(1L, "user@example.com", "John", "Doe", LocalDate.now().minusYears(20), null, null);
+        when(userRepository.updateUser(eq(1L), eq(3L), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        assertEquals(4L, userService.updateUser(request, 3L));
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    void testUpdateUser_StaleVersion() {
+        var request = new UpdateUserRequest(1L, "user@example.com", "John", "Doe", LocalDate.now().minusYears(20), null, null);
+        when(userRepository.updateUser(eq(1L), eq(3L), any(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(UserVersionConflictException.class, () -> userService.updateUser(request, 3L));
+    }
+
+    @Test
+    void testCreateUser_ConcurrentDuplicateIsConflict() {
+        var request = new CreateUserRequest("race@example.com", "John", "Doe", LocalDate.now().minusYears(20), null, null);
+        when(userMapper.toEntity(request)).thenReturn(new User());
+        when(userRepository.save(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'race@example.com' for key 'uk_users_email'"));
+
+        assertThrows(UserExistException.class, () -> userService.createUser(request));
+    }
+
+    @Test
+    void testCreateUser_OtherConstraintViolationIsNotDuplicateEmail() {
+        var request = new CreateUserRequest("long@example.com", "John", "Doe", LocalDate.now().minusYears(20), null, null);
+        when(userMapper.toEntity(request)).thenReturn(new User());
+        when(userRepository.save(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("Data too long for column 'address' at row 1"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(request));
+    }
+
+    private UserDto userWithBirthDate(Long id, LocalDate birthDate) {
+        var user = new UserDto();
+        user.setId(id);
+        user.setBirthDate(birthDate);
+        return user;
+    }
+
+    private static EmailOwner emailOwner(Long id, String email) {
+        return new EmailOwner() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
 
-        User user = new User();
-        user.setId(2L);
-        user.setEmail("old_email@example.com");
+    private static BirthYearCount birthYearCount(int year, long users, long beforeBirthday) {
+        return new BirthYearCount() {
+            @Override
+            public Integer getYear() {
+                return year;
+            }
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
-        when(userRepository.findByEmail(newEmail)).thenReturn(Optional.empty());
+            @Override
+            public Long getUsers() {
+                return users;
+            }
 
-        assertDoesNotThrow(() -> userService.updateUser(request));
-        assertEquals(newEmail, user.getEmail());
+            @Override
+            public Long getBeforeBirthday() {
+                return beforeBirthday;
+            }
+        };
     }
 }